@@ -22,6 +22,7 @@ interface Preferences {
   claimUpdated: boolean;
   matchFound: boolean;
   itemRecovered: boolean;
+  digest: boolean;
 }
 
 const NotificationPreferences: React.FC<NotificationPreferencesProps> = ({
@@ -32,6 +33,7 @@ const NotificationPreferences: React.FC<NotificationPreferencesProps> = ({
     claimUpdated: true,
     matchFound: true,
     itemRecovered: true,
+    digest: false,
   });
   const [loading, setLoading] = useState(true);
   const [saving, setSaving] = useState(false);
@@ -174,6 +176,22 @@ const NotificationPreferences: React.FC<NotificationPreferencesProps> = ({
               onCheckedChange={() => handleToggle("itemRecovered")}
             />
           </div>
+
+          <div className="flex items-center justify-between">
+            <div>
+              <Label htmlFor="digest" className="font-medium">
+                Digest Mode
+              </Label>
+              <p className="text-sm text-muted-foreground">
+                Combine the notifications above into one periodic email
+              </p>
+            </div>
+            <Switch
+              id="digest"
+              checked={preferences.digest}
+              onCheckedChange={() => handleToggle("digest")}
+            />
+          </div>
         </div>
 
         <Button onClick={savePreferences} disabled={saving} className="w-full">
@@ -1,7 +1,7 @@
 import React, { useState } from "react";
 import { useQuery, useMutation, useQueryClient } from "@tanstack/react-query";
 import { adminApi } from "@/services/api";
-import { Item } from "@/types/item";
+import { ItemSummary } from "@/types/item";
 import {
   Table,
   TableBody,
@@ -40,7 +40,7 @@ export const ItemModeration = () => {
   const { toast } = useToast();
   const queryClient = useQueryClient();
   const [searchTerm, setSearchTerm] = useState("");
-  const [itemToDelete, setItemToDelete] = useState<Item | null>(null);
+  const [itemToDelete, setItemToDelete] = useState<ItemSummary | null>(null);
 
   // Query items
   const { data: items = [], isLoading } = useQuery({
@@ -94,7 +94,7 @@ export const ItemModeration = () => {
   const filteredItems = items.filter(
     (item) =>
       item.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      item.description.toLowerCase().includes(searchTerm.toLowerCase()),
+      item.category.toLowerCase().includes(searchTerm.toLowerCase()),
   );
 
   return (
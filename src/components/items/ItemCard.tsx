@@ -9,7 +9,7 @@ import {
 } from "@/components/ui/card";
 import { Badge } from "@/components/ui/badge";
 import { Button } from "@/components/ui/button";
-import { Item } from "@/types/item";
+import { Item, ItemSummary } from "@/types/item";
 import {
   MapPin,
   Calendar,
@@ -28,7 +28,8 @@ import {
 } from "@/components/ui/popover";
 
 interface ItemCardProps {
-  item: Item;
+  // Full items (e.g. matches) also show their description
+  item: ItemSummary & Partial<Item>;
 }
 
 const ItemCard: React.FC<ItemCardProps> = ({ item }) => {
@@ -78,9 +79,11 @@ const ItemCard: React.FC<ItemCardProps> = ({ item }) => {
         </div>
       </CardHeader>
       <CardContent className="p-4 pt-0 space-y-2">
-        <p className="text-muted-foreground text-sm line-clamp-2">
-          {item.description}
-        </p>
+        {item.description && (
+          <p className="text-muted-foreground text-sm line-clamp-2">
+            {item.description}
+          </p>
+        )}
         <div className="flex items-center text-sm text-muted-foreground">
           <Calendar className="h-4 w-4 mr-1" />
           <span>{item.date}</span>
@@ -1,7 +1,7 @@
 
-import React, { useState } from "react";
+import React, { useEffect, useState } from "react";
 import ItemCard from "./ItemCard";
-import { Item, ItemStatus } from "@/types/item";
+import { ItemSummary, ItemQuery } from "@/types/item";
 import { Button } from "@/components/ui/button";
 import { Input } from "@/components/ui/input";
 import { 
@@ -13,29 +13,54 @@ import {
 } from "@/components/ui/select";
 import { CATEGORIES, LOCATIONS } from "@/lib/constants";
 
+// How long typing pauses before the search is sent
+const SEARCH_DELAY_MS = 300;
+
+type FilterKey = "status" | "category" | "location" | "search";
+
 interface ItemGridProps {
-  items: Item[];
+  items: ItemSummary[];
   title?: string;
+  // Filters are applied by the server; the grid shows what it returns
+  query: ItemQuery;
+  onQueryChange: (query: ItemQuery) => void;
 }
 
-const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
-  const [searchTerm, setSearchTerm] = useState("");
-  const [statusFilter, setStatusFilter] = useState<ItemStatus | "all">("all");
-  const [categoryFilter, setCategoryFilter] = useState("all");
-  const [locationFilter, setLocationFilter] = useState("all");
+// The query with one filter replaced; "all" and blank values remove it
+const withFilter = (query: ItemQuery, key: FilterKey, value: string) => {
+  const next = { ...query };
+  delete next.cursor;
+  if (value === "all" || value.trim() === "") {
+    delete next[key];
+  } else {
+    next[key] = value.trim();
+  }
+  return next;
+};
+
+const ItemGrid: React.FC<ItemGridProps> = ({
+  items,
+  title,
+  query,
+  onQueryChange,
+}) => {
+  const [searchTerm, setSearchTerm] = useState(query.search ?? "");
 
-  // Apply filters
-  const filteredItems = items.filter(item => {
-    const matchesSearch = 
-      item.title.toLowerCase().includes(searchTerm.toLowerCase()) || 
-      item.description.toLowerCase().includes(searchTerm.toLowerCase());
-    
-    const matchesStatus = statusFilter === "all" || item.status === statusFilter;
-    const matchesCategory = categoryFilter === "all" || item.category === categoryFilter;
-    const matchesLocation = locationFilter === "all" || item.location === locationFilter;
-    
-    return matchesSearch && matchesStatus && matchesCategory && matchesLocation;
-  });
+  useEffect(() => {
+    if (searchTerm.trim() === (query.search ?? "")) return;
+    const timer = setTimeout(
+      () => onQueryChange(withFilter(query, "search", searchTerm)),
+      SEARCH_DELAY_MS,
+    );
+    return () => clearTimeout(timer);
+  }, [searchTerm, query]); // eslint-disable-line react-hooks/exhaustive-deps
+
+  const setFilter = (key: FilterKey) => (value: string) =>
+    onQueryChange(withFilter(query, key, value));
+
+  const hasFilters = Boolean(
+    searchTerm || query.status || query.category || query.location,
+  );
 
   return (
     <div>
@@ -44,7 +69,7 @@ const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
       <div className="mb-6 space-y-4">
         <Input
           type="text"
-          placeholder="Search by title or description..."
+          placeholder="Search titles and descriptions..."
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
           className="max-w-md"
@@ -52,8 +77,8 @@ const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
         
         <div className="flex flex-wrap gap-3">
           <Select
-            value={statusFilter}
-            onValueChange={(value) => setStatusFilter(value as ItemStatus | "all")}
+            value={query.status ?? "all"}
+            onValueChange={setFilter("status")}
           >
             <SelectTrigger className="w-[180px]">
               <SelectValue placeholder="Status" />
@@ -66,8 +91,8 @@ const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
           </Select>
           
           <Select
-            value={categoryFilter}
-            onValueChange={setCategoryFilter}
+            value={query.category ?? "all"}
+            onValueChange={setFilter("category")}
           >
             <SelectTrigger className="w-[180px]">
               <SelectValue placeholder="Category" />
@@ -83,8 +108,8 @@ const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
           </Select>
           
           <Select
-            value={locationFilter}
-            onValueChange={setLocationFilter}
+            value={query.location ?? "all"}
+            onValueChange={setFilter("location")}
           >
             <SelectTrigger className="w-[180px]">
               <SelectValue placeholder="Location" />
@@ -99,14 +124,12 @@ const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
             </SelectContent>
           </Select>
           
-          {(searchTerm || statusFilter !== "all" || categoryFilter !== "all" || locationFilter !== "all") && (
+          {hasFilters && (
             <Button 
               variant="outline" 
               onClick={() => {
                 setSearchTerm("");
-                setStatusFilter("all");
-                setCategoryFilter("all");
-                setLocationFilter("all");
+                onQueryChange({});
               }}
             >
               Clear Filters
@@ -115,13 +138,13 @@ const ItemGrid: React.FC<ItemGridProps> = ({ items, title }) => {
         </div>
       </div>
       
-      {filteredItems.length === 0 ? (
+      {items.length === 0 ? (
         <div className="text-center py-12">
           <p className="text-gray-500">No items found matching your filters.</p>
         </div>
       ) : (
         <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4 gap-6">
-          {filteredItems.map(item => (
+          {items.map(item => (
             <ItemCard key={item.id} item={item} />
           ))}
         </div>
@@ -4,22 +4,27 @@ import React, {
   useContext,
   ReactNode,
   useEffect,
+  useRef,
 } from "react";
-import { Item, Claim } from "@/types/item";
+import { Item, ItemSummary, ItemQuery, Claim } from "@/types/item";
 import { itemsApi, claimsApi } from "@/services/api";
 import { useAuth } from "@/contexts/AuthContext";
 import { useToast } from "@/components/ui/use-toast";
 
 interface ItemsContextProps {
-  items: Item[];
+  items: ItemSummary[];
   claims: Claim[];
-  userItems: Item[];
+  userItems: ItemSummary[];
   userClaims: Claim[];
   loading: boolean;
   isLoading: boolean; // Added this property
-  getItem: (id: string) => Item | undefined;
+  hasMoreItems: boolean;
+  itemQuery: ItemQuery; // Filters the loaded feed was fetched with
+  getItem: (id: string) => ItemSummary | undefined;
   getItemClaims: (itemId: string) => Claim[];
-  fetchItems: () => Promise<void>;
+  fetchItems: (query?: ItemQuery) => Promise<void>;
+  fetchMoreItems: () => Promise<void>;
+  syncItems: () => Promise<void>;
   fetchUserItems: () => Promise<void>;
   fetchUserClaims: () => Promise<void>;
   getReceivedClaims: (userId: string) => Claim[]; // Added this method
@@ -46,9 +51,13 @@ const ItemsContext = createContext<ItemsContextProps | undefined>(undefined);
 export const ItemsProvider = ({ children }: { children: ReactNode }) => {
   const { user } = useAuth();
   const { toast } = useToast();
-  const [items, setItems] = useState<Item[]>([]);
+  const [items, setItems] = useState<ItemSummary[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [itemQuery, setItemQuery] = useState<ItemQuery>({});
+  const latestFetch = useRef(0);
+  const [changeToken, setChangeToken] = useState<string | null>(null);
   const [claims, setClaims] = useState<Claim[]>([]);
-  const [userItems, setUserItems] = useState<Item[]>([]);
+  const [userItems, setUserItems] = useState<ItemSummary[]>([]);
   const [userClaims, setUserClaims] = useState<Claim[]>([]);
   const [loading, setLoading] = useState(false);
   const [isLoading, setIsLoading] = useState(false); // Added for form submissions
@@ -62,13 +71,77 @@ export const ItemsProvider = ({ children }: { children: ReactNode }) => {
     }
   }, [user]);
 
-  const fetchItems = async () => {
+  // Loads the first page for the given filters, dropping any loaded pages
+  const fetchItems = async (query: ItemQuery = itemQuery) => {
+    const fetchId = ++latestFetch.current;
+    setItemQuery(query);
     setLoading(true);
     try {
-      const data = await itemsApi.getItems();
-      setItems(data);
+      // Take the change token first so nothing written meanwhile is missed
+      const changes = await itemsApi.getItemChanges();
+      const page = await itemsApi.getItems(query);
+      // A newer filter change has its own request in flight
+      if (fetchId !== latestFetch.current) return;
+      setItems(page.items);
+      setNextCursor(page.nextCursor);
+      setChangeToken(changes.token);
     } catch (error) {
       console.error("Error fetching items:", error);
+    } finally {
+      if (fetchId === latestFetch.current) setLoading(false);
+    }
+  };
+
+  // Applies what changed since the last fetch or sync to the loaded items
+  const syncItems = async () => {
+    // The change feed is not filtered, so a filtered list is reloaded
+    if (!changeToken || Object.keys(itemQuery).length > 0) {
+      await fetchItems();
+      return;
+    }
+
+    try {
+      const changes = await itemsApi.getItemChanges(changeToken);
+      if (changes.reset) {
+        await fetchItems();
+        return;
+      }
+
+      setItems((prev) => {
+        const changed = new Map(changes.items.map((item) => [item.id, item]));
+        const deleted = new Set(changes.deletedIds);
+        const newest = prev.length > 0 ? prev[0].createdAt : "";
+        const created = changes.items.filter(
+          (item) =>
+            item.createdAt > newest && !prev.some((p) => p.id === item.id),
+        );
+        return [
+          ...created.reverse(),
+          ...prev
+            .filter((item) => !deleted.has(item.id))
+            .map((item) => changed.get(item.id) ?? item),
+        ];
+      });
+      setChangeToken(changes.token);
+    } catch (error) {
+      console.error("Error syncing items:", error);
+    }
+  };
+
+  // Appends the next page of the feed
+  const fetchMoreItems = async () => {
+    if (!nextCursor) return;
+
+    const fetchId = latestFetch.current;
+    setLoading(true);
+    try {
+      const page = await itemsApi.getItems({ ...itemQuery, cursor: nextCursor });
+      // The filters changed meanwhile and the feed was reloaded
+      if (fetchId !== latestFetch.current) return;
+      setItems((prev) => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Error fetching more items:", error);
     } finally {
       setLoading(false);
     }
@@ -140,7 +213,7 @@ export const ItemsProvider = ({ children }: { children: ReactNode }) => {
     setIsLoading(true);
     try {
       const newItem = await itemsApi.createItem(item);
-      setItems((prev) => [...prev, newItem]);
+      setItems((prev) => [newItem, ...prev]);
       setUserItems((prev) => [...prev, newItem]);
       toast({
         title: "Success",
@@ -273,7 +346,7 @@ export const ItemsProvider = ({ children }: { children: ReactNode }) => {
         ),
       );
 
-      await fetchItems(); // Refresh items to update statuses
+      await syncItems(); // Pick up the item status changes
 
       toast({
         title: "Success",
@@ -331,9 +404,13 @@ export const ItemsProvider = ({ children }: { children: ReactNode }) => {
         userClaims,
         loading,
         isLoading,
+        hasMoreItems: nextCursor !== null,
+        itemQuery,
         getItem,
         getItemClaims,
         fetchItems,
+        fetchMoreItems,
+        syncItems,
         fetchUserItems,
         fetchUserClaims,
         getUserItems,
@@ -0,0 +1,120 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the matching engine over synthetic catalogs.
+ *
+ * Run with {@code mvn -Pbenchmark compile exec:exec}; the profile enables
+ * the GC profiler, so every result also reports the allocation rate
+ * (gc.alloc.rate.norm is bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMatchingBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int catalogSize;
+
+    private ItemService itemService;
+    private CorpusStatistics corpusStatistics;
+    private ForkJoinPool matchingPool;
+    private List<Item> items;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        SyntheticCatalog catalog = new SyntheticCatalog(catalogSize);
+        ItemRepository itemRepository = catalog.repository();
+        ItemMatchIndex itemMatchIndex = new ItemMatchIndex(itemRepository, null);
+        corpusStatistics = new CorpusStatistics(null);
+        matchingPool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors()
+        );
+
+        itemService = new ItemService(
+            itemRepository,
+            null,
+            itemMatchIndex,
+            null,
+            matchingPool,
+            new MatchingStats(),
+            new CampusLocationDictionary(null, null),
+            corpusStatistics,
+            null,
+            new ItemCache(itemRepository, 10_000, 60_000),
+            null
+        );
+        setField(itemService, "dateWindowDays", 30);
+        setField(itemService, "parallelThreshold", 2000);
+
+        items = catalog.items();
+        for (Item item : items) {
+            itemService.applyMatchFields(item);
+            corpusStatistics.index(item);
+        }
+        itemMatchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        matchingPool.shutdown();
+    }
+
+    @Benchmark
+    public double calculateMatchScore() {
+        Item target = next();
+        return itemService.calculateMatchScore(target, next());
+    }
+
+    @Benchmark
+    public double calculateCosineSimilarity() {
+        Item target = next();
+        Item candidate = next();
+        return itemService.calculateCosineSimilarity(
+            target.getDescriptionTokenHashes(),
+            candidate.getDescriptionTokenHashes(),
+            corpusStatistics.frequencies(target.getCategory())
+        );
+    }
+
+    @Benchmark
+    public List<Item> findMatchingItems() {
+        return itemService.findMatchingItems(next().getId());
+    }
+
+    // Walks the catalog so consecutive calls compare different items
+    private Item next() {
+        cursor = (cursor + 7919) % items.size();
+        return items.get(cursor);
+    }
+
+    private static void setField(Object target, String name, Object value)
+        throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
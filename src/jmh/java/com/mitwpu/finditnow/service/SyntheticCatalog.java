@@ -0,0 +1,235 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.springframework.data.domain.Range;
+
+/**
+ * Deterministic catalog of lost/found items with campus-like titles and
+ * descriptions, plus an in-memory ItemRepository over it, so the matching
+ * engine can be benchmarked without MongoDB.
+ */
+final class SyntheticCatalog {
+
+    private static final String[] CATEGORIES = {
+        "electronics", "accessories", "books", "clothing",
+        "wallet", "keys", "id-card", "other",
+    };
+
+    private static final String[] LOCATIONS = {
+        "chanakya", "aryabhatta", "vyas", "gargi",
+        "kashyap", "dhruv", "maitre", "jamdhagni",
+    };
+
+    private static final String[] COLORS = {
+        "black", "blue", "red", "white", "grey", "green", "brown", "silver",
+    };
+
+    private static final String[] NOUNS = {
+        "wallet", "phone", "airpods", "charger", "laptop", "umbrella",
+        "bottle", "jacket", "hoodie", "notebook", "calculator", "keychain",
+        "backpack", "spectacles", "watch", "earphones", "textbook", "purse",
+    };
+
+    private static final String[] BRANDS = {
+        "apple", "samsung", "boat", "milton", "casio", "dell", "lenovo",
+        "nike", "puma", "titan", "skybags", "oneplus",
+    };
+
+    private static final String[] FILLER = {
+        "near", "the", "library", "canteen", "classroom", "second", "floor",
+        "after", "lecture", "with", "sticker", "scratches", "cover", "case",
+        "inside", "pocket", "left", "bench", "parking", "lab", "around",
+        "evening", "morning", "my", "name", "written", "on", "it",
+    };
+
+    private final List<Item> items;
+    private final Map<String, Item> itemsById;
+
+    // Items only carry their raw fields; callers derive the match fields
+    SyntheticCatalog(int size) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.of(2025, 4, 15);
+
+        items = new ArrayList<>(size);
+        itemsById = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String color = pick(random, COLORS);
+            String noun = pick(random, NOUNS);
+            String brand = pick(random, BRANDS);
+
+            Item item = Item.builder()
+                .id(String.format("%024x", i))
+                .userId("user" + random.nextInt(size / 10 + 1))
+                .title(
+                    (random.nextBoolean() ? "Lost " : "Found ") +
+                    color + " " + brand + " " + noun
+                )
+                .description(description(random, color, brand, noun))
+                .category(pick(random, CATEGORIES))
+                .status(random.nextBoolean() ? "lost" : "found")
+                .location(pick(random, LOCATIONS))
+                .date(today.minusDays(random.nextInt(180)).toString())
+                .build();
+
+            items.add(item);
+            itemsById.put(item.getId(), item);
+        }
+    }
+
+    List<Item> items() {
+        return items;
+    }
+
+    /** Repository answering the queries ItemService issues for matching. */
+    @SuppressWarnings("unchecked")
+    ItemRepository repository() {
+        return (ItemRepository) Proxy.newProxyInstance(
+            ItemRepository.class.getClassLoader(),
+            new Class<?>[] { ItemRepository.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findAll":
+                        return items;
+                    case "findById":
+                        return Optional.ofNullable(itemsById.get(args[0]));
+                    case "findAllById":
+                    case "findByIdIn":
+                        return byIds((Iterable<String>) args[0]);
+                    case "findByCategoryAndStatus":
+                        return filter(bucket(args[0], args[1]));
+                    case "findByCategoryAndStatusAndIdNot":
+                        return filter(
+                            bucket(args[0], args[1]).and(
+                                item -> !item.getId().equals(args[2])
+                            )
+                        );
+                    case "findByCategoryAndStatusAndIdIn":
+                        return filter(
+                            bucket(args[0], args[1]).and(
+                                inIds((Collection<String>) args[2])
+                            )
+                        );
+                    case "findByCategoryAndStatusAndEpochDayBetweenAndIdNot":
+                        return filter(
+                            bucket(args[0], args[1])
+                                .and(inRange((Range<Long>) args[2]))
+                                .and(item -> !item.getId().equals(args[3]))
+                        );
+                    case "findByCategoryAndStatusAndEpochDayBetweenAndIdIn":
+                        return filter(
+                            bucket(args[0], args[1])
+                                .and(inRange((Range<Long>) args[2]))
+                                .and(inIds((Collection<String>) args[3]))
+                        );
+                    case "findByCategoryAndStatusAndUpdatedAtAfter":
+                        return filter(
+                            bucket(args[0], args[1]).and(
+                                updatedAfter((LocalDateTime) args[2])
+                            )
+                        );
+                    case "findByCategoryAndStatusAndEpochDayBetweenAndUpdatedAtAfter":
+                        return filter(
+                            bucket(args[0], args[1])
+                                .and(inRange((Range<Long>) args[2]))
+                                .and(updatedAfter((LocalDateTime) args[3]))
+                        );
+                    case "toString":
+                        return "SyntheticCatalog.repository";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        );
+    }
+
+    private List<Item> byIds(Iterable<String> ids) {
+        List<Item> found = new ArrayList<>();
+        for (String id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    private List<Item> filter(Predicate<Item> predicate) {
+        List<Item> found = new ArrayList<>();
+        for (Item item : items) {
+            if (predicate.test(item)) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    private static Predicate<Item> bucket(Object category, Object status) {
+        return item ->
+            item.getCategory().equals(category) && item.getStatus().equals(status);
+    }
+
+    private static Predicate<Item> inIds(Collection<String> ids) {
+        Set<String> idSet = new HashSet<>(ids);
+        return item -> idSet.contains(item.getId());
+    }
+
+    private static Predicate<Item> inRange(Range<Long> range) {
+        return item -> item.getEpochDay() != null && range.contains(item.getEpochDay());
+    }
+
+    private static Predicate<Item> updatedAfter(LocalDateTime since) {
+        return item ->
+            item.getUpdatedAt() != null && item.getUpdatedAt().isAfter(since);
+    }
+
+    // 15-40 words, in the range of what users actually type
+    private static String description(
+        Random random,
+        String color,
+        String brand,
+        String noun
+    ) {
+        int length = 15 + random.nextInt(26);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                description.append(color);
+            } else if (kind == 1) {
+                description.append(brand);
+            } else if (kind == 2) {
+                description.append(noun);
+            } else if (kind == 3) {
+                description.append(pick(random, NOUNS));
+            } else {
+                description.append(pick(random, FILLER));
+            }
+        }
+        return description.append('.').toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
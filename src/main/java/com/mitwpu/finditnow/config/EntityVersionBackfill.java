@@ -0,0 +1,44 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.model.Claim;
+import com.mitwpu.finditnow.model.Comment;
+import com.mitwpu.finditnow.model.Item;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives items, claims and comments written before they were versioned a
+ * version of 0. Spring Data treats a versioned entity with a null version
+ * as new, so saving one of those would otherwise try to insert it again.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityVersionBackfill implements Migration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public String id() {
+        return "004-entity-versions";
+    }
+
+    @Override
+    public long apply() {
+        long updated = 0;
+        for (Class<?> type : List.of(Item.class, Claim.class, Comment.class)) {
+            updated += mongoTemplate
+                .updateMulti(
+                    new Query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    type
+                )
+                .getModifiedCount();
+        }
+        return updated;
+    }
+}
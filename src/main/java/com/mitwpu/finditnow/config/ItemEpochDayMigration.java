@@ -0,0 +1,36 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.service.ItemDates;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives the epoch day from the string date of items written before the
+ * field existed. Items whose date cannot be parsed get an explicit null so
+ * they are not picked up again.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemEpochDayMigration implements Migration {
+
+    private final MigrationBatches migrationBatches;
+
+    @Override
+    public String id() {
+        return "002-item-epoch-day";
+    }
+
+    @Override
+    public long apply() {
+        Query query = new Query(Criteria.where("epochDay").exists(false));
+        query.fields().include("date");
+
+        return migrationBatches.updateEach(query, Item.class, item ->
+            new Update().set("epochDay", ItemDates.toEpochDay(item.getDate()))
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.service.CampusLocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the campus location id of items written before the field
+ * existed. Later building edits relink the items they affect, so this only
+ * has work to do once.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemLocationBackfill implements Migration {
+
+    private final CampusLocationService campusLocationService;
+
+    @Override
+    public String id() {
+        return "003-item-location-ids";
+    }
+
+    @Override
+    public long apply() {
+        return campusLocationService.relinkItems(
+            Criteria.where("locationId").exists(false)
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.service.CampusLocationDictionary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the location words of items written before they were persisted,
+ * so building edits can find the items they affect.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemLocationKeyBackfill implements Migration {
+
+    private final MigrationBatches migrationBatches;
+
+    @Override
+    public String id() {
+        return "006-item-location-keys";
+    }
+
+    @Override
+    public long apply() {
+        Query query = new Query(Criteria.where("locationKeys").exists(false));
+        query.fields().include("location");
+
+        return migrationBatches.updateEach(query, Item.class, item ->
+            new Update().set(
+                "locationKeys",
+                CampusLocationDictionary.locationKeys(item.getLocation())
+            )
+        );
+    }
+}
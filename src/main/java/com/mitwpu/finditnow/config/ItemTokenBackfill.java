@@ -0,0 +1,57 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.service.DescriptionMinHash;
+import com.mitwpu.finditnow.service.ItemTextTokenizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes the stored title/description tokens, token hashes and
+ * description MinHash signature for items written before they were
+ * persisted.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemTokenBackfill implements Migration {
+
+    private final MigrationBatches migrationBatches;
+
+    @Override
+    public String id() {
+        return "001-item-tokens";
+    }
+
+    @Override
+    public long apply() {
+        Query query = new Query(
+            new Criteria().orOperator(
+                Criteria.where("titleTokens").exists(false),
+                Criteria.where("descriptionTokenHashes").exists(false),
+                Criteria.where("descriptionMinHash").exists(false)
+            )
+        );
+        query.fields().include("title", "description");
+
+        return migrationBatches.updateEach(query, Item.class, item -> {
+            long[] descriptionTokenHashes = ItemTextTokenizer.hashTokens(
+                item.getDescription()
+            );
+            return new Update()
+                .set("titleTokens", ItemTextTokenizer.tokenize(item.getTitle()))
+                .set(
+                    "descriptionTokens",
+                    ItemTextTokenizer.tokenize(item.getDescription())
+                )
+                .set("titleTokenHashes", ItemTextTokenizer.hashTokens(item.getTitle()))
+                .set("descriptionTokenHashes", descriptionTokenHashes)
+                .set(
+                    "descriptionMinHash",
+                    DescriptionMinHash.signature(descriptionTokenHashes)
+                );
+        });
+    }
+}
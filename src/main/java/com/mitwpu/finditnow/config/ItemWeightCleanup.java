@@ -0,0 +1,41 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.model.Item;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the TF-IDF weights earlier versions stored on items; the scorer
+ * now applies IDF itself from the current corpus.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemWeightCleanup implements Migration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public String id() {
+        return "005-drop-item-weights";
+    }
+
+    @Override
+    public long apply() {
+        return mongoTemplate
+            .updateMulti(
+                new Query(
+                    new Criteria().orOperator(
+                        Criteria.where("titleWeights").exists(true),
+                        Criteria.where("descriptionWeights").exists(true)
+                    )
+                ),
+                new Update().unset("titleWeights").unset("descriptionWeights"),
+                Item.class
+            )
+            .getModifiedCount();
+    }
+}
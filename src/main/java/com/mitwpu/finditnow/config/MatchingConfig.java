@@ -0,0 +1,23 @@
+package com.mitwpu.finditnow.config;
+
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MatchingConfig {
+
+    // Dedicated pool so match scoring never competes with parallel streams
+    // elsewhere in the application for the common pool
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool matchingPool(
+        @Value("${matching.parallelism:0}") int parallelism
+    ) {
+        return new ForkJoinPool(
+            parallelism > 0
+                ? parallelism
+                : Runtime.getRuntime().availableProcessors()
+        );
+    }
+}
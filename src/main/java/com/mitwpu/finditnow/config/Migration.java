@@ -0,0 +1,15 @@
+package com.mitwpu.finditnow.config;
+
+/**
+ * A one-off data change, run at startup by MigrationRunner and recorded in
+ * the "migrations" collection once it completes so it is not run again.
+ * Migrations should still only touch documents that need the change, so
+ * one interrupted half way through can simply run again.
+ */
+public interface Migration {
+    /** Unique id, recorded once applied; pending migrations run in id order. */
+    String id();
+
+    /** Applies the change and returns how many documents were updated. */
+    long apply();
+}
@@ -0,0 +1,67 @@
+package com.mitwpu.finditnow.config;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch loop shared by migrations that compute a new value per document:
+ * reads up to BATCH_SIZE matching documents (with the query's projection),
+ * writes one bulk update for them, and repeats until nothing matches.
+ */
+@Component
+@RequiredArgsConstructor
+public class MigrationBatches {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Updates every document matching the query and returns how many there
+     * were. The update must make a document stop matching, or this never
+     * returns.
+     */
+    public <T> long updateEach(
+        Query query,
+        Class<T> type,
+        Function<T, Update> update
+    ) {
+        PersistentEntity<?, ?> entity = mongoTemplate
+            .getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(type);
+        query.limit(BATCH_SIZE);
+
+        long updated = 0;
+        while (true) {
+            List<T> batch = mongoTemplate.find(query, type);
+            if (batch.isEmpty()) {
+                return updated;
+            }
+
+            BulkOperations operations = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED,
+                type
+            );
+            for (T document : batch) {
+                Object id = entity
+                    .getIdentifierAccessor(document)
+                    .getRequiredIdentifier();
+                operations.updateOne(
+                    new Query(Criteria.where("_id").is(id)),
+                    update.apply(document)
+                );
+            }
+            operations.execute();
+            updated += batch.size();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mitwpu.finditnow.config;
+
+import com.mitwpu.finditnow.model.AppliedMigration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies every Migration bean not yet recorded in the "migrations"
+ * collection, in id order, and records each one once it completes. A
+ * migration that fails stops startup and is retried on the next one.
+ *
+ * Runs once every singleton exists but before the web server starts, so no
+ * request sees data a pending migration has yet to fix (items without a
+ * version, for one, would be saved as inserts and collide).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MigrationRunner implements SmartInitializingSingleton {
+
+    private final List<Migration> migrations;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Set<String> applied = new HashSet<>();
+        for (AppliedMigration migration : mongoTemplate.findAll(
+            AppliedMigration.class
+        )) {
+            applied.add(migration.getId());
+        }
+
+        List<Migration> pending = migrations
+            .stream()
+            .filter(migration -> !applied.contains(migration.id()))
+            .sorted(Comparator.comparing(Migration::id))
+            .toList();
+        for (Migration migration : pending) {
+            long startedAt = System.nanoTime();
+            long updated = migration.apply();
+            mongoTemplate.save(
+                AppliedMigration.builder()
+                    .id(migration.id())
+                    .documentsUpdated(updated)
+                    .appliedAt(LocalDateTime.now())
+                    .build()
+            );
+            log.info(
+                "Applied migration {}: {} documents updated in {} ms",
+                migration.id(),
+                updated,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)
+            );
+        }
+    }
+}
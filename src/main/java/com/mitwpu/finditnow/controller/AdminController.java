@@ -1,27 +1,92 @@
 package com.mitwpu.finditnow.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mitwpu.finditnow.dto.ItemSummary;
+import com.mitwpu.finditnow.model.CampusBuilding;
 import com.mitwpu.finditnow.model.Claim;
 import com.mitwpu.finditnow.model.Item;
 import com.mitwpu.finditnow.model.Report;
 import com.mitwpu.finditnow.model.User;
 import com.mitwpu.finditnow.service.AdminService;
+import com.mitwpu.finditnow.service.CampusLocationService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final AdminService adminService;
+    private final CampusLocationService campusLocationService;
+    private final ObjectMapper objectMapper;
 
     // Item management
     @GetMapping("/items")
-    public ResponseEntity<List<Item>> getAllItems() {
-        return ResponseEntity.ok(adminService.getAllItems());
+    public ResponseEntity<List<ItemSummary>> getAllItems(WebRequest request) {
+        List<ItemSummary> items = adminService.getAllItems();
+        if (request.checkNotModified(ETags.forPage(items, null))) {
+            return null;
+        }
+        return ResponseEntity.ok(items);
+    }
+
+    // Whole catalog, written while a Mongo cursor is read: one JSON object
+    // per line by default, or a single JSON array with format=json
+    @GetMapping("/items/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        boolean array = "json".equals(format);
+        if (!array && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException(
+                "Invalid format. Must be 'ndjson' or 'json'"
+            );
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper
+                .writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (
+                SequenceWriter items = array
+                    ? writer.writeValuesAsArray(outputStream)
+                    : writer.withRootValueSeparator("\n").writeValues(outputStream)
+            ) {
+                adminService.exportItems(item -> {
+                    try {
+                        items.write(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(
+                array
+                    ? MediaType.APPLICATION_JSON
+                    : MediaType.parseMediaType(NDJSON)
+            )
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"items." + format + "\""
+            )
+            .body(body);
     }
 
     @PutMapping("/items/{id}/status")
@@ -96,9 +161,58 @@ public class AdminController {
         );
     }
 
+    // Campus locations
+    @GetMapping("/locations")
+    public ResponseEntity<List<CampusBuilding>> getBuildings() {
+        return ResponseEntity.ok(campusLocationService.getAllBuildings());
+    }
+
+    @PostMapping("/locations")
+    public ResponseEntity<CampusBuilding> createBuilding(
+        @RequestBody CampusBuilding building
+    ) {
+        return ResponseEntity.ok(campusLocationService.createBuilding(building));
+    }
+
+    @PutMapping("/locations/{id}")
+    public ResponseEntity<CampusBuilding> updateBuilding(
+        @PathVariable String id,
+        @RequestBody CampusBuilding building
+    ) {
+        return ResponseEntity.ok(
+            campusLocationService.updateBuilding(id, building)
+        );
+    }
+
+    @DeleteMapping("/locations/{id}")
+    public ResponseEntity<Void> deleteBuilding(@PathVariable String id) {
+        campusLocationService.deleteBuilding(id);
+        return ResponseEntity.ok().build();
+    }
+
     // Analytics
     @GetMapping("/analytics")
     public ResponseEntity<Map<String, Object>> getAnalytics() {
         return ResponseEntity.ok(adminService.getAnalytics());
     }
+
+    @GetMapping("/analytics/matching")
+    public ResponseEntity<Map<String, Long>> getMatchingStats() {
+        return ResponseEntity.ok(adminService.getMatchingStats());
+    }
+
+    @GetMapping("/analytics/item-cache")
+    public ResponseEntity<Map<String, Long>> getItemCacheStats() {
+        return ResponseEntity.ok(adminService.getItemCacheStats());
+    }
+
+    @GetMapping("/analytics/notifications")
+    public ResponseEntity<Map<String, Long>> getNotificationStats() {
+        return ResponseEntity.ok(adminService.getNotificationStats());
+    }
+
+    @GetMapping("/analytics/mail")
+    public ResponseEntity<Map<String, Long>> getMailStats() {
+        return ResponseEntity.ok(adminService.getMailStats());
+    }
 }
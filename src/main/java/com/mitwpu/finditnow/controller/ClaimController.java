@@ -1,12 +1,9 @@
 package com.mitwpu.finditnow.controller;
 
 import com.mitwpu.finditnow.model.Claim;
-import com.mitwpu.finditnow.model.Item;
 import com.mitwpu.finditnow.model.User;
-import com.mitwpu.finditnow.repository.ItemRepository;
-import com.mitwpu.finditnow.repository.UserRepository;
 import com.mitwpu.finditnow.service.ClaimService;
-import com.mitwpu.finditnow.service.EmailService;
+import com.mitwpu.finditnow.service.NotificationService;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/claims")
@@ -23,9 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class ClaimController {
 
     private final ClaimService claimService;
-    private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final NotificationService notificationService;
 
     @GetMapping
     public ResponseEntity<List<Claim>> getAllClaims() {
@@ -33,8 +29,22 @@ public class ClaimController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Claim> getClaim(@PathVariable String id) {
-        return ResponseEntity.ok(claimService.getClaimById(id));
+    public ResponseEntity<Claim> getClaim(
+        @PathVariable String id,
+        WebRequest request
+    ) {
+        if (
+            request.checkNotModified(
+                ETags.forVersion(claimService.getClaimVersion(id))
+            )
+        ) {
+            return null;
+        }
+
+        Claim claim = claimService.getClaimById(id);
+        return ResponseEntity.ok()
+            .eTag(ETags.forVersion(claim.getVersion()))
+            .body(claim);
     }
 
     @GetMapping("/item/{itemId}")
@@ -65,27 +75,8 @@ public class ClaimController {
 
         Claim newClaim = claimService.createClaim(claim);
 
-        // Send email notification to the item owner
-        Item item = itemRepository.findById(itemId).orElse(null);
-        if (item != null) {
-            User owner = userRepository.findById(item.getUserId()).orElse(null);
-            User claimant = userRepository
-                .findById(newClaim.getClaimantId())
-                .orElse(null);
-
-            if (owner != null && claimant != null) {
-                // Check notification preferences
-                Map<String, Boolean> preferences =
-                    emailService.getNotificationPreferences(owner.getId());
-                if (preferences.getOrDefault("claimReceived", true)) {
-                    emailService.sendClaimReceivedNotification(
-                        owner.getEmail(),
-                        item.getTitle(),
-                        claimant.getName()
-                    );
-                }
-            }
-        }
+        // Queue an email notification to the item owner
+        notificationService.claimReceived(newClaim);
 
         return ResponseEntity.ok(newClaim);
     }
@@ -104,43 +95,8 @@ public class ClaimController {
             (String) null
         );
 
-        // Send email notification to the claimant
-        User claimant = userRepository
-            .findById(updatedClaim.getClaimantId())
-            .orElse(null);
-        Item item = itemRepository
-            .findById(updatedClaim.getItemId())
-            .orElse(null);
-
-        if (claimant != null && item != null) {
-            // Check notification preferences
-            Map<String, Boolean> preferences =
-                emailService.getNotificationPreferences(claimant.getId());
-            if (preferences.getOrDefault("claimUpdated", true)) {
-                emailService.sendClaimStatusNotification(
-                    claimant.getEmail(),
-                    item.getTitle(),
-                    status
-                );
-            }
-
-            // If claim was approved, also notify about item recovery
-            if ("approved".equalsIgnoreCase(status)) {
-                User owner = userRepository
-                    .findById(item.getUserId())
-                    .orElse(null);
-                if (owner != null) {
-                    Map<String, Boolean> ownerPreferences =
-                        emailService.getNotificationPreferences(owner.getId());
-                    if (ownerPreferences.getOrDefault("itemRecovered", true)) {
-                        emailService.sendItemRecoveredNotification(
-                            owner.getEmail(),
-                            item.getTitle()
-                        );
-                    }
-                }
-            }
-        }
+        // Queue an email notification to the claimant
+        notificationService.claimUpdated(updatedClaim, status);
 
         return ResponseEntity.ok(updatedClaim);
     }
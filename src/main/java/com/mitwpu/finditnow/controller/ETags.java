@@ -0,0 +1,44 @@
+package com.mitwpu.finditnow.controller;
+
+import com.mitwpu.finditnow.dto.ItemSummary;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong ETags for conditional GETs. Documents are tagged with their
+ * version, item lists with a digest of the ids and versions they contain.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String forVersion(Long version) {
+        return "\"" + (version != null ? version : 0) + "\"";
+    }
+
+    // Any create, edit or delete that changes what the page shows changes
+    // an id or a version; the next cursor is included for paged lists
+    static String forPage(List<ItemSummary> items, String nextCursor) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (ItemSummary item : items) {
+            digest.update(item.getId().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            digest.update(
+                String.valueOf(item.getVersion()).getBytes(StandardCharsets.UTF_8)
+            );
+            digest.update((byte) ',');
+        }
+        if (nextCursor != null) {
+            digest.update(nextCursor.getBytes(StandardCharsets.UTF_8));
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+}
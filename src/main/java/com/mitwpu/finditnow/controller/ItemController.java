@@ -1,139 +1,178 @@
 package com.mitwpu.finditnow.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mitwpu.finditnow.dto.ItemChanges;
+import com.mitwpu.finditnow.dto.ItemFilter;
+import com.mitwpu.finditnow.dto.ItemPage;
+import com.mitwpu.finditnow.dto.ItemSummary;
 import com.mitwpu.finditnow.model.Item;
 import com.mitwpu.finditnow.model.User;
-import com.mitwpu.finditnow.repository.UserRepository;
-import com.mitwpu.finditnow.service.EmailService;
+import com.mitwpu.finditnow.service.ItemDates;
 import com.mitwpu.finditnow.service.ItemService;
+import com.mitwpu.finditnow.service.MatchRefreshQueue;
+import com.mitwpu.finditnow.service.MatchService;
+import com.mitwpu.finditnow.service.NotificationService;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Matched items are loaded and written this many targets at a time
+    private static final int BATCH_CHUNK_SIZE = 100;
+
     private final ItemService itemService;
-    private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final MatchService matchService;
+    private final MatchRefreshQueue matchRefreshQueue;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return ResponseEntity.ok(itemService.getAllItems());
+    public ResponseEntity<ItemPage> getItems(
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) String type,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) String from,
+        @RequestParam(required = false) String to,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        WebRequest request
+    ) {
+        ItemFilter filter = ItemFilter.builder()
+            .status(status)
+            .type(type)
+            .category(category)
+            .location(location)
+            .search(search)
+            .fromEpochDay(epochDay(from, "from"))
+            .toEpochDay(epochDay(to, "to"))
+            .build();
+
+        // Tagged from the page itself, so a 304 costs no more than the page
+        // query and saves serializing and sending it
+        ItemPage page = itemService.getItems(filter, cursor, limit);
+        if (
+            request.checkNotModified(
+                ETags.forPage(page.getItems(), page.getNextCursor())
+            )
+        ) {
+            return null;
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ItemChanges> getItemChanges(
+        @RequestParam(required = false) String since
+    ) {
+        return ResponseEntity.ok(itemService.getChanges(since));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItem(@PathVariable String id) {
-        return ResponseEntity.ok(itemService.getItemById(id));
+    public ResponseEntity<Item> getItem(
+        @PathVariable String id,
+        WebRequest request
+    ) {
+        // Answered from the version alone when the client's copy is current
+        long version = itemService.getItemVersion(id);
+        if (request.checkNotModified(ETags.forVersion(version))) {
+            return null;
+        }
+
+        Item item = itemService.getItemById(id, version);
+        return ResponseEntity.ok()
+            .eTag(ETags.forVersion(item.getVersion()))
+            .body(item);
     }
 
     @GetMapping("/user")
-    public ResponseEntity<List<Item>> getUserItems() {
-        return ResponseEntity.ok(itemService.getUserItems());
+    public ResponseEntity<List<ItemSummary>> getUserItems(WebRequest request) {
+        List<ItemSummary> items = itemService.getUserItems();
+        if (request.checkNotModified(ETags.forPage(items, null))) {
+            return null;
+        }
+        return ResponseEntity.ok(items);
     }
 
     @GetMapping("/match/{id}")
     public ResponseEntity<List<Item>> getMatchingItems(
         @PathVariable String id
     ) {
-        return ResponseEntity.ok(itemService.findMatchingItems(id));
+        return ResponseEntity.ok(matchService.getMatchingItems(id));
     }
 
-    @PostMapping
-    public ResponseEntity<Item> createItem(@RequestBody Item item) {
-        Item newItem = itemService.createItem(item);
+    @PostMapping("/match/batch")
+    public ResponseEntity<Map<String, List<ItemSummary>>> getMatchingItemsBatch(
+        @RequestBody Map<String, List<String>> request
+    ) {
+        List<String> itemIds = request.getOrDefault("itemIds", List.of());
+        itemService.checkMatchingBatch(itemIds);
+        return ResponseEntity.ok(itemService.findMatchingItems(itemIds));
+    }
 
-        // Check for potential matches and send notifications
-        if (newItem.getStatus().equals("lost")) {
-            List<Item> matchingItems = itemService.getMatchingItems(
-                newItem.getId()
+    // Same as above, written as one JSON object per line while items are
+    // scored so large batches never have to be held in memory
+    @PostMapping(value = "/match/batch", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamMatchingItemsBatch(
+        @RequestBody Map<String, List<String>> request
+    ) {
+        List<String> itemIds = request.getOrDefault("itemIds", List.of());
+        // Before the body is handed to another thread and the status is sent
+        itemService.checkMatchingBatch(itemIds);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new OutputStreamWriter(
+                outputStream,
+                StandardCharsets.UTF_8
             );
-            if (!matchingItems.isEmpty()) {
-                // Notify the user who posted the lost item
-                User user = userRepository
-                    .findById(newItem.getUserId())
-                    .orElse(null);
-                if (user != null) {
-                    Map<String, Boolean> preferences =
-                        emailService.getNotificationPreferences(user.getId());
-                    if (preferences.getOrDefault("matchFound", true)) {
-                        Item matchedItem = matchingItems.get(0); // Get the top match
-                        emailService.sendMatchFoundNotification(
-                            user.getEmail(),
-                            newItem.getTitle(),
-                            matchedItem.getTitle()
+            itemService.findMatchingItems(
+                itemIds,
+                BATCH_CHUNK_SIZE,
+                (itemId, matches) -> {
+                    try {
+                        writer.write(
+                            objectMapper.writeValueAsString(
+                                Map.of("itemId", itemId, "matches", matches)
+                            )
                         );
+                        writer.write("\n");
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
                 }
-
-                // Notify the users who posted matching found items
-                for (Item matchedItem : matchingItems) {
-                    User matchedUser = userRepository
-                        .findById(matchedItem.getUserId())
-                        .orElse(null);
-                    if (matchedUser != null) {
-                        Map<String, Boolean> preferences =
-                            emailService.getNotificationPreferences(
-                                matchedUser.getId()
-                            );
-                        if (preferences.getOrDefault("matchFound", true)) {
-                            emailService.sendMatchFoundNotification(
-                                matchedUser.getEmail(),
-                                matchedItem.getTitle(),
-                                newItem.getTitle()
-                            );
-                        }
-                    }
-                }
-            }
-        } else if (newItem.getType().equals("found")) {
-            List<Item> matchingItems = itemService.getMatchingItems(
-                newItem.getId()
             );
-            if (!matchingItems.isEmpty()) {
-                // Notify the user who posted the found item
-                User user = userRepository
-                    .findById(newItem.getUserId())
-                    .orElse(null);
-                if (user != null) {
-                    Map<String, Boolean> preferences =
-                        emailService.getNotificationPreferences(user.getId());
-                    if (preferences.getOrDefault("matchFound", true)) {
-                        Item matchedItem = matchingItems.get(0); // Get the top match
-                        emailService.sendMatchFoundNotification(
-                            user.getEmail(),
-                            newItem.getTitle(),
-                            matchedItem.getTitle()
-                        );
-                    }
-                }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .body(body);
+    }
 
-                // Notify the users who posted matching lost items
-                for (Item matchedItem : matchingItems) {
-                    User matchedUser = userRepository
-                        .findById(matchedItem.getUserId())
-                        .orElse(null);
-                    if (matchedUser != null) {
-                        Map<String, Boolean> preferences =
-                            emailService.getNotificationPreferences(
-                                matchedUser.getId()
-                            );
-                        if (preferences.getOrDefault("matchFound", true)) {
-                            emailService.sendMatchFoundNotification(
-                                matchedUser.getEmail(),
-                                matchedItem.getTitle(),
-                                newItem.getTitle()
-                            );
-                        }
-                    }
-                }
-            }
-        }
+    @PostMapping
+    public ResponseEntity<Item> createItem(@RequestBody Item item) {
+        Item newItem = itemService.createItem(item);
+
+        // Check for potential matches and notify in the background
+        matchRefreshQueue.submit(newItem);
 
         return ResponseEntity.ok(newItem);
     }
@@ -147,19 +186,10 @@ public class ItemController {
 
         // If item is marked as recovered, notify the owner
         if (updatedItem.getStatus().equals("recovered")) {
-            User owner = userRepository
-                .findById(updatedItem.getUserId())
-                .orElse(null);
-            if (owner != null) {
-                Map<String, Boolean> preferences =
-                    emailService.getNotificationPreferences(owner.getId());
-                if (preferences.getOrDefault("itemRecovered", true)) {
-                    emailService.sendItemRecoveredNotification(
-                        owner.getEmail(),
-                        updatedItem.getTitle()
-                    );
-                }
-            }
+            notificationService.itemRecovered(updatedItem);
+        } else {
+            // Edited details can change which items match
+            matchRefreshQueue.submit(updatedItem);
         }
 
         return ResponseEntity.ok(updatedItem);
@@ -171,6 +201,20 @@ public class ItemController {
         return ResponseEntity.ok().build();
     }
 
+    // Optional "yyyy-MM-dd" query parameter as an epoch day
+    private static Long epochDay(String date, String name) {
+        if (date == null || date.isEmpty()) {
+            return null;
+        }
+        Long epochDay = ItemDates.toEpochDay(date);
+        if (epochDay == null) {
+            throw new IllegalArgumentException(
+                "Invalid '" + name + "' date, expected yyyy-MM-dd"
+            );
+        }
+        return epochDay;
+    }
+
     private String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext()
             .getAuthentication();
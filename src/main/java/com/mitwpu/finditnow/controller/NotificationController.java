@@ -1,7 +1,7 @@
 package com.mitwpu.finditnow.controller;
 
 import com.mitwpu.finditnow.model.User;
-import com.mitwpu.finditnow.service.EmailService;
+import com.mitwpu.finditnow.service.NotificationPreferenceService;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,13 +14,13 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class NotificationController {
 
-    private final EmailService emailService;
+    private final NotificationPreferenceService notificationPreferenceService;
 
     @GetMapping("/preferences")
     public ResponseEntity<Map<String, Boolean>> getNotificationPreferences() {
         String userId = getCurrentUserId();
         return ResponseEntity.ok(
-            emailService.getNotificationPreferences(userId)
+            notificationPreferenceService.getPreferences(userId)
         );
     }
 
@@ -29,8 +29,9 @@ public class NotificationController {
         @RequestBody Map<String, Boolean> preferences
     ) {
         String userId = getCurrentUserId();
-        emailService.setNotificationPreferences(userId, preferences);
-        return ResponseEntity.ok(preferences);
+        return ResponseEntity.ok(
+            notificationPreferenceService.setPreferences(userId, preferences)
+        );
     }
 
     private String getCurrentUserId() {
@@ -0,0 +1,27 @@
+package com.mitwpu.finditnow.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemChanges {
+
+    // Items created or updated since the token
+    private List<ItemSummary> items;
+
+    // Items deleted since the token
+    private List<String> deletedIds;
+
+    // Pass back as ?since= on the next call
+    private String token;
+
+    // The changes could not be computed (no or expired token, or too many
+    // changes); reload the feed instead of applying them
+    private boolean reset;
+}
@@ -0,0 +1,27 @@
+package com.mitwpu.finditnow.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemFilter {
+
+    private String userId;
+    private String status;
+    private String type;
+    private String category;
+    private String location;
+
+    // Words or phrase in the title or description, case-insensitive; looked
+    // up in the text index, so it matches whole words, not word fragments
+    private String search;
+
+    // Inclusive range of item dates as days since 1970-01-01
+    private Long fromEpochDay;
+    private Long toEpochDay;
+}
@@ -0,0 +1,32 @@
+package com.mitwpu.finditnow.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What item lists render. Read with a field projection
+ * (ItemRepository.SUMMARY_FIELDS), so descriptions and secret questions and
+ * answers are neither decoded nor sent for list views.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSummary {
+
+    private String id;
+    private Long version;
+    private String userId;
+    private String title;
+    private String category;
+    private String type;
+    private String status;
+    private String location;
+    private String date;
+    private String imageUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
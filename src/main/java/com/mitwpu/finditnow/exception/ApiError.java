@@ -24,6 +24,7 @@ public class ApiError {
         UNAUTHORIZED,
         FORBIDDEN,
         NOT_FOUND,
+        CONFLICT,
         INTERNAL_SERVER_ERROR
     }
 }
@@ -0,0 +1,24 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "migrations")
+public class AppliedMigration {
+
+    @Id
+    private String id; // Migration id, see config.Migration
+
+    private long documentsUpdated;
+
+    private LocalDateTime appliedAt;
+}
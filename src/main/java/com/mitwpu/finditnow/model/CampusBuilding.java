@@ -0,0 +1,42 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "campus_buildings")
+public class CampusBuilding {
+
+    @Id
+    private String id;
+
+    // Small sequential number assigned on creation; item location ids and
+    // the proximity matrix are derived from it
+    @Indexed(unique = true)
+    private int code;
+
+    private String name;
+
+    // Other names people type for the building, e.g. "central library"
+    private List<String> aliases;
+
+    // Floor names in order, e.g. "ground floor", "1st floor"
+    private List<String> floors;
+
+    // Used to grade how close two buildings are
+    private Double latitude;
+    private Double longitude;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
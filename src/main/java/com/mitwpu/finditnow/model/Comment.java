@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -18,6 +19,10 @@ public class Comment {
     @Id
     private String id;
 
+    // Bumped on every save; rejects concurrent overwrites and backs ETags
+    @Version
+    private Long version;
+
     private String itemId;
     private String userId;
     private String userName;
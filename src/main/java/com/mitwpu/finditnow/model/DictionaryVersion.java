@@ -0,0 +1,24 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dictionary_versions")
+public class DictionaryVersion {
+
+    @Id
+    private String id; // Name of the in-memory dictionary
+
+    private long version; // Bumped on every change, so instances know to reload
+
+    private LocalDateTime updatedAt;
+}
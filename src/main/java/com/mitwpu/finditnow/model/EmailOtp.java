@@ -0,0 +1,32 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * The current email verification code for an address. Sending a new code
+ * replaces the old one; Mongo removes codes once they expire.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "email_otps")
+public class EmailOtp {
+
+    @Id
+    private String email;
+
+    private String code;
+
+    private int attempts; // Verification attempts made against this code
+
+    @Indexed(expireAfter = "10m")
+    private LocalDateTime createdAt;
+}
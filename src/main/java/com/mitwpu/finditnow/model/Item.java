@@ -1,11 +1,18 @@
 package com.mitwpu.finditnow.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -13,26 +20,107 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "items")
+@CompoundIndexes(
+    {
+        @CompoundIndex(
+            name = "category_status_epoch_day_idx",
+            def = "{'category': 1, 'status': 1, 'epochDay': 1}"
+        ),
+        // Keyset pagination of the item feed, optionally filtered
+        @CompoundIndex(
+            name = "created_idx",
+            def = "{'createdAt': -1, '_id': -1}"
+        ),
+        @CompoundIndex(
+            name = "status_created_idx",
+            def = "{'status': 1, 'createdAt': -1, '_id': -1}"
+        ),
+        @CompoundIndex(
+            name = "type_created_idx",
+            def = "{'type': 1, 'createdAt': -1, '_id': -1}"
+        ),
+        @CompoundIndex(
+            name = "category_status_created_idx",
+            def = "{'category': 1, 'status': 1, 'createdAt': -1, '_id': -1}"
+        ),
+        @CompoundIndex(
+            name = "location_created_idx",
+            def = "{'location': 1, 'createdAt': -1, '_id': -1}"
+        ),
+    }
+)
 public class Item {
 
     @Id
     private String id;
 
+    // Bumped on every save; rejects concurrent overwrites and backs ETags
+    @Version
+    private Long version;
+
     private String userId;
+
+    // Text index behind the item feed's search parameter
+    @TextIndexed
     private String title;
+
+    @TextIndexed
     private String description;
+
     private String category;
     private String type; // Added type field - lost/found
     private String status; // lost, found, recovered
     private String location;
+
+    // Campus location id resolved from the location text on write, null when
+    // it names no known building (see CampusLocationDictionary)
+    @JsonIgnore
+    private Integer locationId;
+
+    // Words of the location text; a building edit relinks only the items
+    // that have a word of one of its names
+    @JsonIgnore
+    @Indexed
+    private List<String> locationKeys;
     private String date; // Date the item was lost/found
+
+    // Date as days since 1970-01-01, derived on write for matching queries
+    @JsonIgnore
+    private Long epochDay;
     private String imageUrl;
 
     // Security question/answer for verification
     private String secretQuestion;
     private String secretAnswer;
 
+    // Normalized, sorted title/description words computed on write for matching
+    @JsonIgnore
+    private List<String> titleTokens;
+
+    @JsonIgnore
+    private List<String> descriptionTokens;
+
+    // 64-bit hashes of the same tokens, sorted; what the scorer compares
+    @JsonIgnore
+    private long[] titleTokenHashes;
+
+    @JsonIgnore
+    private long[] descriptionTokenHashes;
+
+    // MinHash signature of the description tokens, used for LSH candidate lookup
+    @JsonIgnore
+    private int[] descriptionMinHash;
+
+    // When the materialized matches for this item were last refreshed;
+    // indexed for the sweeper, which scores items where it is missing first
+    @JsonIgnore
+    @Indexed
+    private LocalDateTime matchesComputedAt;
+
     private LocalDateTime createdAt;
+
+    // Read by GET /items/changes
+    @Indexed
     private LocalDateTime updatedAt;
 
     // Add these getters and setters explicitly to ensure they're available
@@ -0,0 +1,30 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Records that an item was deleted, so clients syncing the item feed by
+ * changes can drop it. Expires after the change-sync retention period.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "item_tombstones")
+public class ItemTombstone {
+
+    @Id
+    private String id;
+
+    private String itemId;
+
+    @Indexed(expireAfter = "30d")
+    private LocalDateTime deletedAt;
+}
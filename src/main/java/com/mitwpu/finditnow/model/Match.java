@@ -0,0 +1,42 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "matches")
+@CompoundIndexes(
+    {
+        @CompoundIndex(name = "item_score_idx", def = "{'itemId': 1, 'score': -1}"),
+        @CompoundIndex(
+            name = "item_candidate_idx",
+            def = "{'itemId': 1, 'candidateId': 1}",
+            unique = true
+        ),
+    }
+)
+public class Match {
+
+    @Id
+    private String id;
+
+    private String itemId; // Item the match is listed for
+
+    @Indexed
+    private String candidateId; // Item with the opposite status that matched
+
+    private double score;
+
+    private LocalDateTime computedAt;
+}
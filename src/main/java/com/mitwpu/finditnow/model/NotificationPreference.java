@@ -0,0 +1,25 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notification_preferences")
+public class NotificationPreference {
+
+    @Id
+    private String userId;
+
+    // One bit per preference key, see NotificationPreferenceService
+    private int flags;
+
+    private LocalDateTime updatedAt;
+}
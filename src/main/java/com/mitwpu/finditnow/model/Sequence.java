@@ -0,0 +1,21 @@
+package com.mitwpu.finditnow.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sequences")
+public class Sequence {
+
+    @Id
+    private String id; // What the numbers are for, e.g. "campus-building-code"
+
+    private long value; // Last number handed out; bumped with $inc
+}
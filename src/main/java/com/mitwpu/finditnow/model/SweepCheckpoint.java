@@ -0,0 +1,31 @@
+package com.mitwpu.finditnow.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sweep_checkpoints")
+public class SweepCheckpoint {
+
+    @Id
+    private String id; // Name of the background job
+
+    private String lastItemId; // Last item processed, null at the start of a pass
+
+    private long passesCompleted;
+
+    private LocalDateTime updatedAt;
+
+    // Instance currently running the job, and until when it holds it
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,10 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.model.CampusBuilding;
+import java.util.Optional;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface CampusBuildingRepository
+    extends MongoRepository<CampusBuilding, String> {
+    Optional<CampusBuilding> findTopByOrderByCodeDesc();
+}
@@ -4,10 +4,15 @@ import com.mitwpu.finditnow.model.Claim;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 public interface ClaimRepository extends MongoRepository<Claim, String> {
     List<Claim> findByItemId(String itemId);
 
+    // Only the version, for answering conditional GETs
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Optional<Claim> findVersionById(String id);
+
     List<Claim> findByClaimantId(String claimantId);
 
     Optional<Claim> findByItemIdAndClaimantIdAndStatus(
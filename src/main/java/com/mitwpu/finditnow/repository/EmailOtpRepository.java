@@ -0,0 +1,6 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.model.EmailOtp;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface EmailOtpRepository extends MongoRepository<EmailOtp, String> {}
@@ -1,10 +1,125 @@
 package com.mitwpu.finditnow.repository;
 
+import com.mitwpu.finditnow.dto.ItemSummary;
 import com.mitwpu.finditnow.model.Item;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+public interface ItemRepository
+    extends MongoRepository<Item, String>, ItemRepositoryCustom {
+    // Fields read by the match scorer; secret answers and image URLs stay in Mongo
+    String MATCH_FIELDS =
+        "{ 'userId': 1, 'titleTokens': 1, 'descriptionTokens': 1, " +
+        "'titleTokenHashes': 1, 'descriptionTokenHashes': 1, " +
+        "'category': 1, 'status': 1, 'location': 1, 'locationId': 1, " +
+        "'epochDay': 1, 'updatedAt': 1 }";
+
+    // Fields of ItemSummary, for list views
+    String SUMMARY_FIELDS =
+        "{ 'version': 1, 'userId': 1, 'title': 1, 'category': 1, 'type': 1, 'status': 1, " +
+        "'location': 1, 'date': 1, 'imageUrl': 1, 'createdAt': 1, " +
+        "'updatedAt': 1 }";
 
-public interface ItemRepository extends MongoRepository<Item, String> {
     List<Item> findByUserId(String userId);
+
+    // Only the version, for answering conditional GETs
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Optional<Item> findVersionById(String id);
+
+    @Query(value = "{ 'userId': ?0 }", fields = SUMMARY_FIELDS)
+    List<ItemSummary> findSummariesByUserId(String userId);
+
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    List<ItemSummary> findAllSummaries();
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = SUMMARY_FIELDS)
+    List<ItemSummary> findSummariesByIdIn(Collection<String> ids);
+
+    boolean existsByIdInAndUserIdNot(Collection<String> ids, String userId);
+
+    @Query(fields = SUMMARY_FIELDS)
+    List<ItemSummary> findSummariesByUpdatedAtAfterOrderByUpdatedAtAsc(
+        LocalDateTime since,
+        Pageable pageable
+    );
     long countByStatus(String status);
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByStatusInOrderByIdAsc(
+        Collection<String> statuses,
+        Pageable pageable
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByStatusInAndIdGreaterThanOrderByIdAsc(
+        Collection<String> statuses,
+        String id,
+        Pageable pageable
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByStatusInAndMatchesComputedAtIsNull(
+        Collection<String> statuses,
+        Pageable pageable
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByIdIn(Collection<String> ids);
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatus(String category, String status);
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatusAndIdNot(
+        String category,
+        String status,
+        String id
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatusAndIdIn(
+        String category,
+        String status,
+        Collection<String> ids
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatusAndUpdatedAtAfter(
+        String category,
+        String status,
+        LocalDateTime since
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatusAndEpochDayBetweenAndIdNot(
+        String category,
+        String status,
+        Range<Long> epochDays,
+        String id
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatusAndEpochDayBetweenAndIdIn(
+        String category,
+        String status,
+        Range<Long> epochDays,
+        Collection<String> ids
+    );
+
+    @Query(fields = MATCH_FIELDS)
+    List<Item> findByCategoryAndStatusAndEpochDayBetweenAndUpdatedAtAfter(
+        String category,
+        String status,
+        Range<Long> epochDays,
+        LocalDateTime since
+    );
 }
@@ -0,0 +1,19 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.dto.ItemFilter;
+import com.mitwpu.finditnow.dto.ItemSummary;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+    /**
+     * Items matching the filter, newest first by (createdAt, _id), starting
+     * after the given position. Pass a null afterId for the first page.
+     */
+    List<ItemSummary> findPage(
+        ItemFilter filter,
+        LocalDateTime afterCreatedAt,
+        String afterId,
+        int limit
+    );
+}
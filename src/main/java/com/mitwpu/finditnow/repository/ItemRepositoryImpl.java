@@ -0,0 +1,115 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.dto.ItemFilter;
+import com.mitwpu.finditnow.dto.ItemSummary;
+import com.mitwpu.finditnow.model.Item;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+
+@RequiredArgsConstructor
+class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<ItemSummary> findPage(
+        ItemFilter filter,
+        LocalDateTime afterCreatedAt,
+        String afterId,
+        int limit
+    ) {
+        List<Criteria> criteria = filterCriteria(filter);
+        if (afterId != null) {
+            criteria.add(after(afterCreatedAt, afterId));
+        }
+
+        Query query = new Query();
+        // Answered from the text index on title and description: items
+        // containing the search text as a phrase, in either field. $text
+        // must sit at the top level of the query, and quotes in the search
+        // would end the phrase early.
+        String search = filter.getSearch() != null
+            ? filter.getSearch().replace('"', ' ').trim()
+            : "";
+        if (!search.isEmpty()) {
+            query.addCriteria(
+                TextCriteria.forDefaultLanguage().matchingPhrase(search)
+            );
+        }
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.with(
+            Sort.by(Sort.Direction.DESC, "createdAt").and(
+                Sort.by(Sort.Direction.DESC, "_id")
+            )
+        );
+        query.limit(limit);
+        for (String field : Document.parse(ItemRepository.SUMMARY_FIELDS).keySet()) {
+            query.fields().include(field);
+        }
+
+        return mongoTemplate.find(
+            query,
+            ItemSummary.class,
+            mongoTemplate.getCollectionName(Item.class)
+        );
+    }
+
+    private static List<Criteria> filterCriteria(ItemFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getUserId() != null) {
+            criteria.add(Criteria.where("userId").is(filter.getUserId()));
+        }
+        if (filter.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(filter.getStatus()));
+        }
+        if (filter.getType() != null) {
+            criteria.add(Criteria.where("type").is(filter.getType()));
+        }
+        if (filter.getCategory() != null) {
+            criteria.add(Criteria.where("category").is(filter.getCategory()));
+        }
+        if (filter.getLocation() != null) {
+            criteria.add(Criteria.where("location").is(filter.getLocation()));
+        }
+        if (filter.getFromEpochDay() != null || filter.getToEpochDay() != null) {
+            Criteria epochDay = Criteria.where("epochDay");
+            if (filter.getFromEpochDay() != null) {
+                epochDay.gte(filter.getFromEpochDay());
+            }
+            if (filter.getToEpochDay() != null) {
+                epochDay.lte(filter.getToEpochDay());
+            }
+            criteria.add(epochDay);
+        }
+        return criteria;
+    }
+
+    // Everything that sorts after (createdAt, id) in descending order. Items
+    // without createdAt sort last.
+    private static Criteria after(LocalDateTime createdAt, String id) {
+        if (createdAt == null) {
+            return new Criteria().andOperator(
+                Criteria.where("createdAt").is(null),
+                Criteria.where("_id").lt(id)
+            );
+        }
+        return new Criteria().orOperator(
+            Criteria.where("createdAt").lt(createdAt),
+            new Criteria().andOperator(
+                Criteria.where("createdAt").is(createdAt),
+                Criteria.where("_id").lt(id)
+            ),
+            Criteria.where("createdAt").is(null)
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.model.ItemTombstone;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ItemTombstoneRepository
+    extends MongoRepository<ItemTombstone, String> {
+    List<ItemTombstone> findByDeletedAtAfterOrderByDeletedAtAsc(
+        LocalDateTime since,
+        Pageable pageable
+    );
+}
@@ -0,0 +1,11 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.model.Match;
+import java.util.List;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MatchRepository extends MongoRepository<Match, String> {
+    List<Match> findTop5ByItemIdOrderByScoreDesc(String itemId);
+
+    void deleteByItemIdOrCandidateId(String itemId, String candidateId);
+}
@@ -0,0 +1,7 @@
+package com.mitwpu.finditnow.repository;
+
+import com.mitwpu.finditnow.model.NotificationPreference;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface NotificationPreferenceRepository
+    extends MongoRepository<NotificationPreference, String> {}
@@ -1,19 +1,26 @@
 package com.mitwpu.finditnow.service;
 
+import com.mitwpu.finditnow.dto.ItemSummary;
 import com.mitwpu.finditnow.exception.ResourceNotFoundException;
 import com.mitwpu.finditnow.model.Claim;
 import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.ItemTombstone;
 import com.mitwpu.finditnow.model.Report;
 import com.mitwpu.finditnow.model.User;
 import com.mitwpu.finditnow.repository.ClaimRepository;
 import com.mitwpu.finditnow.repository.ItemRepository;
+import com.mitwpu.finditnow.repository.ItemTombstoneRepository;
 import com.mitwpu.finditnow.repository.ReportRepository;
 import com.mitwpu.finditnow.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -22,14 +29,48 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final ClaimRepository claimRepository;
     private final UserRepository userRepository;
     private final ReportRepository reportRepository;
+    private final ItemMatchIndex itemMatchIndex;
+    private final MatchService matchService;
+    private final MatchingStats matchingStats;
+    private final MatchRefreshQueue matchRefreshQueue;
+    private final CorpusStatistics corpusStatistics;
+    private final MongoTemplate mongoTemplate;
+    private final ItemTombstoneRepository itemTombstoneRepository;
+    private final ItemCache itemCache;
+    private final NotificationService notificationService;
+    private final MailDeliveryQueue mailDeliveryQueue;
 
     // Item moderation
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    public List<ItemSummary> getAllItems() {
+        return itemRepository.findAllSummaries();
+    }
+
+    /**
+     * Passes every item to the consumer while iterating a Mongo cursor, so
+     * only one batch of documents is in memory at a time. Derived matching
+     * fields are not read.
+     */
+    public void exportItems(Consumer<Item> consumer) {
+        Query query = new Query().cursorBatchSize(EXPORT_BATCH_SIZE);
+        query
+            .fields()
+            .exclude(
+                "titleTokens",
+                "descriptionTokens",
+                "titleTokenHashes",
+                "descriptionTokenHashes",
+                "descriptionMinHash"
+            );
+
+        try (Stream<Item> items = mongoTemplate.stream(query, Item.class)) {
+            items.forEach(consumer);
+        }
     }
 
     public Item updateItemStatus(String id, String status) {
@@ -42,7 +83,11 @@ public class AdminService {
         item.setStatus(status);
         item.setUpdatedAt(LocalDateTime.now());
 
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemCache.invalidate(id);
+        itemMatchIndex.index(savedItem);
+        matchService.refreshMatches(savedItem);
+        return savedItem;
     }
 
     public void removeItem(String id) {
@@ -53,6 +98,16 @@ public class AdminService {
         }
 
         itemRepository.deleteById(id);
+        itemCache.invalidate(id);
+        itemTombstoneRepository.save(
+            ItemTombstone.builder()
+                .itemId(id)
+                .deletedAt(LocalDateTime.now())
+                .build()
+        );
+        itemMatchIndex.remove(id);
+        corpusStatistics.remove(id);
+        matchService.removeMatches(id);
     }
 
     // User management
@@ -99,13 +154,7 @@ public class AdminService {
         String currentUserId = getCurrentUserId();
 
         // Verify the item exists
-        itemRepository
-            .findById(report.getItemId())
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + report.getItemId()
-                )
-            );
+        itemCache.get(report.getItemId());
 
         report.setReporterId(currentUserId);
         report.setStatus("pending");
@@ -192,6 +241,24 @@ public class AdminService {
         return analytics;
     }
 
+    public Map<String, Long> getMatchingStats() {
+        Map<String, Long> stats = matchingStats.snapshot();
+        stats.putAll(matchRefreshQueue.snapshot());
+        return stats;
+    }
+
+    public Map<String, Long> getItemCacheStats() {
+        return itemCache.snapshot();
+    }
+
+    public Map<String, Long> getNotificationStats() {
+        return notificationService.snapshot();
+    }
+
+    public Map<String, Long> getMailStats() {
+        return mailDeliveryQueue.snapshot();
+    }
+
     private String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext()
             .getAuthentication();
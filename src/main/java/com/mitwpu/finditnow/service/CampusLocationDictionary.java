@@ -0,0 +1,311 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.CampusBuilding;
+import com.mitwpu.finditnow.model.DictionaryVersion;
+import com.mitwpu.finditnow.repository.CampusBuildingRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the admin-managed campus buildings.
+ *
+ * Free-text item locations are resolved to an integer location id
+ * (building code * FLOOR_SLOTS + floor slot, slot 0 meaning "somewhere in
+ * the building") when an item is written. How close two locations are is
+ * then a single lookup in a building-to-building matrix that is computed
+ * whenever the dictionary is reloaded.
+ *
+ * Changes bump a version document in Mongo. Every instance checks it
+ * periodically and reloads when it moves, so an edit made through one
+ * instance reaches the others within one check interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class CampusLocationDictionary {
+
+    public static final int FLOOR_SLOTS = 100;
+
+    // Same building, but a different or unknown floor
+    static final float SAME_BUILDING = 0.8f;
+
+    // Neighbouring buildings; falls off to 0 at the configured radius
+    static final float NEARBY_BUILDING = 0.5f;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private static final String VERSION_ID = "campus-locations";
+
+    private final CampusBuildingRepository campusBuildingRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${matching.location-radius-m:300}")
+    private double radiusMeters;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Version the snapshot was built from
+    private volatile long loadedVersion = -1;
+
+    @PostConstruct
+    public void reload() {
+        // Read before the buildings, so a change made meanwhile is reloaded
+        // on the next check rather than missed
+        long version = currentVersion();
+        List<CampusBuilding> buildings = campusBuildingRepository.findAll();
+
+        int size = 0;
+        for (CampusBuilding building : buildings) {
+            size = Math.max(size, building.getCode() + 1);
+        }
+
+        List<Phrase> buildingPhrases = new ArrayList<>();
+        String[][] floorPhrases = new String[size][];
+        CampusBuilding[] byCode = new CampusBuilding[size];
+        for (CampusBuilding building : buildings) {
+            int code = building.getCode();
+            byCode[code] = building;
+            addPhrase(buildingPhrases, building.getName(), code);
+            if (building.getAliases() != null) {
+                for (String alias : building.getAliases()) {
+                    addPhrase(buildingPhrases, alias, code);
+                }
+            }
+
+            List<String> floors = building.getFloors() != null
+                ? building.getFloors()
+                : List.of();
+            floorPhrases[code] = new String[floors.size()];
+            for (int i = 0; i < floors.size(); i++) {
+                String floor = floors.get(i);
+                floorPhrases[code][i] = floor != null ? normalize(floor) : " ";
+            }
+        }
+        // Longest phrase first, so "central library" wins over "library"
+        buildingPhrases.sort(
+            Comparator.comparingInt((Phrase phrase) -> phrase.text().length())
+                .reversed()
+        );
+
+        float[] proximity = new float[size * size];
+        for (int a = 0; a < size; a++) {
+            for (int b = 0; b < size; b++) {
+                proximity[a * size + b] = a == b
+                    ? SAME_BUILDING
+                    : buildingProximity(byCode[a], byCode[b]);
+            }
+        }
+
+        snapshot = new Snapshot(buildingPhrases, floorPhrases, proximity, size);
+        loadedVersion = version;
+    }
+
+    /** Records that the buildings changed, then reloads this instance. */
+    public void publishChange() {
+        mongoTemplate.upsert(
+            new Query(Criteria.where("_id").is(VERSION_ID)),
+            new Update().inc("version", 1).set("updatedAt", LocalDateTime.now()),
+            DictionaryVersion.class
+        );
+        reload();
+    }
+
+    // Picks up changes published by other instances
+    @Scheduled(
+        initialDelayString = "${matching.location-check-interval-ms:30000}",
+        fixedDelayString = "${matching.location-check-interval-ms:30000}"
+    )
+    public void reloadIfChanged() {
+        if (currentVersion() != loadedVersion) {
+            reload();
+        }
+    }
+
+    private long currentVersion() {
+        DictionaryVersion version = mongoTemplate.findById(
+            VERSION_ID,
+            DictionaryVersion.class
+        );
+        return version != null ? version.getVersion() : 0;
+    }
+
+    /**
+     * Location id for a free-text location, or null when it does not name a
+     * known building.
+     */
+    public Integer resolve(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+
+        Snapshot current = snapshot;
+        String text = normalize(location);
+        for (Phrase phrase : current.buildingPhrases()) {
+            if (text.contains(phrase.text())) {
+                int code = phrase.code();
+                return code * FLOOR_SLOTS + floorSlot(current, code, text);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The distinct words of a free-text location, stored on each item so
+     * that a building change only relinks items that can mention it.
+     */
+    public static List<String> locationKeys(String location) {
+        if (location == null) {
+            return new ArrayList<>();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (String word : normalize(location).trim().split(" ")) {
+            if (!word.isEmpty()) {
+                keys.add(word);
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * One location key shared by every location that contains the building
+     * name or alias, or null for a blank one. The longest word is the one
+     * fewest items have.
+     */
+    public static String phraseKey(String phrase) {
+        String key = null;
+        for (String word : locationKeys(phrase)) {
+            if (key == null || word.length() > key.length()) {
+                key = word;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * How close two resolved locations are, from 1 (same place) to 0.
+     */
+    public double proximity(int locationId1, int locationId2) {
+        if (locationId1 == locationId2) {
+            return 1.0;
+        }
+
+        Snapshot current = snapshot;
+        int building1 = locationId1 / FLOOR_SLOTS;
+        int building2 = locationId2 / FLOOR_SLOTS;
+        if (building1 >= current.size() || building2 >= current.size()) {
+            return 0.0;
+        }
+        return current.proximity()[building1 * current.size() + building2];
+    }
+
+    private static int floorSlot(Snapshot snapshot, int code, String text) {
+        String[] floors = snapshot.floorPhrases()[code];
+        int slot = 0;
+        int longest = 1; // a blank floor name normalizes to a single space
+        for (int i = 0; i < floors.length && i < FLOOR_SLOTS - 1; i++) {
+            String floor = floors[i];
+            if (floor.length() > longest && text.contains(floor)) {
+                slot = i + 1;
+                longest = floor.length();
+            }
+        }
+        return slot;
+    }
+
+    private float buildingProximity(CampusBuilding a, CampusBuilding b) {
+        if (
+            a == null ||
+            b == null ||
+            a.getLatitude() == null ||
+            a.getLongitude() == null ||
+            b.getLatitude() == null ||
+            b.getLongitude() == null ||
+            radiusMeters <= 0
+        ) {
+            return 0f;
+        }
+
+        double distance = distanceMeters(
+            a.getLatitude(),
+            a.getLongitude(),
+            b.getLatitude(),
+            b.getLongitude()
+        );
+        return (float) Math.max(
+            0.0,
+            NEARBY_BUILDING * (1.0 - distance / radiusMeters)
+        );
+    }
+
+    // Haversine distance
+    private static double distanceMeters(
+        double lat1,
+        double lon1,
+        double lat2,
+        double lon2
+    ) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h =
+            Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+            Math.cos(Math.toRadians(lat1)) *
+            Math.cos(Math.toRadians(lat2)) *
+            Math.sin(dLon / 2) *
+            Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(h));
+    }
+
+    private static void addPhrase(List<Phrase> phrases, String text, int code) {
+        String normalized = text != null ? normalize(text) : " ";
+        if (normalized.length() > 1) {
+            phrases.add(new Phrase(normalized, code));
+        }
+    }
+
+    // Lowercase words separated by single spaces, padded so that a contains
+    // check only matches whole words
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length() + 2);
+        normalized.append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        if (normalized.charAt(normalized.length() - 1) != ' ') {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private record Phrase(String text, int code) {}
+
+    private record Snapshot(
+        List<Phrase> buildingPhrases,
+        String[][] floorPhrases,
+        float[] proximity,
+        int size
+    ) {
+        static final Snapshot EMPTY = new Snapshot(
+            List.of(),
+            new String[0][],
+            new float[0],
+            0
+        );
+    }
+}
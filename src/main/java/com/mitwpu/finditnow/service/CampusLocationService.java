@@ -0,0 +1,212 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.exception.ResourceNotFoundException;
+import com.mitwpu.finditnow.model.CampusBuilding;
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.Sequence;
+import com.mitwpu.finditnow.repository.CampusBuildingRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class CampusLocationService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String CODE_SEQUENCE = "campus-building-code";
+
+    private final CampusBuildingRepository campusBuildingRepository;
+    private final CampusLocationDictionary campusLocationDictionary;
+    private final MongoTemplate mongoTemplate;
+    private final ItemCache itemCache;
+
+    public List<CampusBuilding> getAllBuildings() {
+        return campusBuildingRepository.findAll();
+    }
+
+    public CampusBuilding createBuilding(CampusBuilding building) {
+        validate(building);
+
+        building.setId(null);
+        building.setCode(nextCode());
+        building.setCreatedAt(LocalDateTime.now());
+        building.setUpdatedAt(LocalDateTime.now());
+
+        CampusBuilding saved = campusBuildingRepository.save(building);
+        applyChanges(phraseKeys(saved));
+        return saved;
+    }
+
+    public CampusBuilding updateBuilding(String id, CampusBuilding update) {
+        CampusBuilding building = campusBuildingRepository
+            .findById(id)
+            .orElseThrow(() ->
+                new ResourceNotFoundException("Building not found with id: " + id)
+            );
+        validate(update);
+        // Items naming the building by its old name or aliases move too
+        Set<String> keys = phraseKeys(building);
+
+        building.setName(update.getName());
+        building.setAliases(update.getAliases());
+        building.setFloors(update.getFloors());
+        building.setLatitude(update.getLatitude());
+        building.setLongitude(update.getLongitude());
+        building.setUpdatedAt(LocalDateTime.now());
+
+        CampusBuilding saved = campusBuildingRepository.save(building);
+        keys.addAll(phraseKeys(saved));
+        applyChanges(keys);
+        return saved;
+    }
+
+    public void deleteBuilding(String id) {
+        CampusBuilding building = campusBuildingRepository
+            .findById(id)
+            .orElseThrow(() ->
+                new ResourceNotFoundException("Building not found with id: " + id)
+            );
+
+        campusBuildingRepository.deleteById(id);
+        applyChanges(phraseKeys(building));
+    }
+
+    /**
+     * Re-resolves the location id of every item matching the criteria
+     * against the current dictionary, and writes it where it changed. The
+     * matches of a relinked item are marked stale, so MatchSweeper
+     * re-scores it ahead of its regular pass.
+     */
+    public long relinkItems(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include("location", "locationId");
+
+        List<String> updatedIds = new ArrayList<>();
+        BulkOperations operations = null;
+        int pending = 0;
+        try (Stream<Item> items = mongoTemplate.stream(query, Item.class)) {
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                Item item = iterator.next();
+                Integer locationId = campusLocationDictionary.resolve(
+                    item.getLocation()
+                );
+                if (Objects.equals(locationId, item.getLocationId())) {
+                    continue;
+                }
+                if (operations == null) {
+                    operations = mongoTemplate.bulkOps(
+                        BulkOperations.BulkMode.UNORDERED,
+                        Item.class
+                    );
+                }
+                operations.updateOne(
+                    new Query(Criteria.where("_id").is(item.getId())),
+                    new Update()
+                        .set("locationId", locationId)
+                        .unset("matchesComputedAt")
+                );
+                updatedIds.add(item.getId());
+
+                if (++pending == BATCH_SIZE) {
+                    operations.execute();
+                    operations = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (operations != null) {
+            operations.execute();
+        }
+        // Cached items would keep their old location ids
+        for (String id : updatedIds) {
+            itemCache.invalidate(id);
+        }
+        return updatedIds.size();
+    }
+
+    // Only an item whose location contains one of the building's names,
+    // before or after the change, can resolve differently, and every such
+    // item has that name's key. Other instances reload the dictionary when
+    // they see the published version change.
+    private void applyChanges(Set<String> keys) {
+        campusLocationDictionary.publishChange();
+        if (!keys.isEmpty()) {
+            relinkItems(Criteria.where("locationKeys").in(keys));
+        }
+    }
+
+    private static Set<String> phraseKeys(CampusBuilding building) {
+        Set<String> keys = new HashSet<>();
+        addPhraseKey(keys, building.getName());
+        if (building.getAliases() != null) {
+            for (String alias : building.getAliases()) {
+                addPhraseKey(keys, alias);
+            }
+        }
+        return keys;
+    }
+
+    private static void addPhraseKey(Set<String> keys, String phrase) {
+        String key = CampusLocationDictionary.phraseKey(phrase);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    // Atomic, so concurrent creates never pick the same code. The sequence
+    // starts from the highest existing code the first time it is used.
+    private int nextCode() {
+        Query query = new Query(Criteria.where("_id").is(CODE_SEQUENCE));
+        if (!mongoTemplate.exists(query, Sequence.class)) {
+            int last = campusBuildingRepository
+                .findTopByOrderByCodeDesc()
+                .map(CampusBuilding::getCode)
+                .orElse(0);
+            mongoTemplate.upsert(
+                query,
+                new Update().setOnInsert("value", last),
+                Sequence.class
+            );
+        }
+
+        Sequence sequence = mongoTemplate.findAndModify(
+            query,
+            new Update().inc("value", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            Sequence.class
+        );
+        return Math.toIntExact(sequence.getValue());
+    }
+
+    private void validate(CampusBuilding building) {
+        if (building.getName() == null || building.getName().isBlank()) {
+            throw new IllegalArgumentException("Building name is required");
+        }
+        if (
+            building.getFloors() != null &&
+            building.getFloors().size() >= CampusLocationDictionary.FLOOR_SLOTS
+        ) {
+            throw new IllegalArgumentException(
+                "A building can have at most " +
+                (CampusLocationDictionary.FLOOR_SLOTS - 1) +
+                " floors"
+            );
+        }
+    }
+}
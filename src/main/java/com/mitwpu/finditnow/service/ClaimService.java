@@ -5,7 +5,6 @@ import com.mitwpu.finditnow.model.Claim;
 import com.mitwpu.finditnow.model.Item;
 import com.mitwpu.finditnow.model.User;
 import com.mitwpu.finditnow.repository.ClaimRepository;
-import com.mitwpu.finditnow.repository.ItemRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -19,7 +18,7 @@ import org.springframework.stereotype.Service;
 public class ClaimService {
 
     private final ClaimRepository claimRepository;
-    private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
 
     public List<Claim> getAllClaims() {
         return claimRepository.findAll();
@@ -33,6 +32,16 @@ public class ClaimService {
             );
     }
 
+    public long getClaimVersion(String id) {
+        Long version = claimRepository
+            .findVersionById(id)
+            .orElseThrow(() ->
+                new ResourceNotFoundException("Claim not found with id: " + id)
+            )
+            .getVersion();
+        return version != null ? version : 0;
+    }
+
     public Claim getClaim(String id) {
         return getClaimById(id);
     }
@@ -47,14 +56,8 @@ public class ClaimService {
     }
 
     public List<Claim> getItemClaims(String itemId) {
-        // Verify item exists
-        Item item = itemRepository
-            .findById(itemId)
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + itemId
-                )
-            );
+        // Verify item exists; the owner never changes, so a cached copy does
+        Item item = itemCache.get(itemId);
 
         // Check if the current user is the owner of the item
         String userId = getCurrentUserId();
@@ -69,13 +72,7 @@ public class ClaimService {
 
     public Claim getApprovedClaim(String itemId) {
         // Verify item exists
-        Item item = itemRepository
-            .findById(itemId)
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + itemId
-                )
-            );
+        Item item = itemCache.get(itemId);
 
         // Anyone can get the approved claim for an item
         Optional<Claim> approvedClaim = claimRepository.findByItemIdAndStatus(
@@ -94,15 +91,10 @@ public class ClaimService {
         String userId = getCurrentUserId();
 
         // Verify the item exists
-        itemRepository
-            .findById(claim.getItemId())
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + claim.getItemId()
-                )
-            );
+        itemCache.get(claim.getItemId());
 
         claim.setClaimantId(userId);
+        claim.setVersion(null);
         claim.setStatus("pending");
         claim.setCreatedAt(LocalDateTime.now());
         claim.setUpdatedAt(LocalDateTime.now());
@@ -114,14 +106,9 @@ public class ClaimService {
         Claim existingClaim = getClaimById(id);
         String userId = getCurrentUserId();
 
-        // Get the item to check if the current user is the owner
-        Item item = itemRepository
-            .findById(existingClaim.getItemId())
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + existingClaim.getItemId()
-                )
-            );
+        // Get the item to check if the current user is the owner; read once
+        // from Mongo, and the claim notification reuses the refreshed entry
+        Item item = itemCache.getFresh(existingClaim.getItemId());
 
         // Only the item owner can update the claim status
         if (!item.getUserId().equals(userId)) {
@@ -7,7 +7,6 @@ import com.mitwpu.finditnow.model.Item;
 import com.mitwpu.finditnow.model.User;
 import com.mitwpu.finditnow.repository.ClaimRepository;
 import com.mitwpu.finditnow.repository.CommentRepository;
-import com.mitwpu.finditnow.repository.ItemRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -20,18 +19,12 @@ import org.springframework.stereotype.Service;
 public class CommentService {
 
     private final CommentRepository commentRepository;
-    private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
     private final ClaimRepository claimRepository;
 
     public List<Comment> getItemComments(String itemId) {
         // Verify that the item exists
-        itemRepository
-            .findById(itemId)
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + itemId
-                )
-            );
+        itemCache.get(itemId);
 
         return commentRepository.findByItemId(itemId);
     }
@@ -40,13 +33,7 @@ public class CommentService {
         String userId = getCurrentUserId();
 
         // Verify item exists
-        Item item = itemRepository
-            .findById(comment.getItemId())
-            .orElseThrow(() ->
-                new ResourceNotFoundException(
-                    "Item not found with id: " + comment.getItemId()
-                )
-            );
+        Item item = itemCache.getFresh(comment.getItemId());
 
         // Check if the user is the owner of the item or has an approved claim
         boolean isItemOwner = item.getUserId().equals(userId);
@@ -66,6 +53,7 @@ public class CommentService {
         }
 
         comment.setUserId(userId);
+        comment.setVersion(null);
         comment.setCreatedAt(LocalDateTime.now());
 
         return commentRepository.save(comment);
@@ -0,0 +1,372 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.ItemTombstone;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-category document frequencies of item tokens, used to weight title
+ * and description tokens by how rare they are within the category.
+ *
+ * The tables are rebuilt from Mongo in one streaming pass at startup and
+ * kept current as items are written and deleted. An item counts as one
+ * document made of its title and description tokens together. Weights are
+ * read from the tables at scoring time rather than stored on items, so
+ * they follow the corpus as it grows. Writers take a lock; the scorer
+ * reads the tables without one.
+ *
+ * Each instance keeps its own tables. Writes made through other instances
+ * are applied by a periodic sync from the items' updatedAt and the item
+ * tombstones, so the tables agree across instances up to one sync
+ * interval. Until then, a match edge scored on one instance can differ
+ * slightly from the same edge scored on another; the difference is
+ * bounded by how much the category changed in that interval, and the
+ * sweeper re-scores edges with the converged weights.
+ */
+@Component
+@RequiredArgsConstructor
+public class CorpusStatistics {
+
+    private final MongoTemplate mongoTemplate;
+
+    private static final CategoryFrequencies EMPTY = new CategoryFrequencies();
+
+    // Allows for clock skew between the instances that stamp updatedAt
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    // Fields an item's document tokens are computed from
+    private static final String[] DOCUMENT_FIELDS = {
+        "category",
+        "title",
+        "description",
+        "titleTokenHashes",
+        "descriptionTokenHashes",
+    };
+
+    private final Map<String, CategoryFrequencies> categories =
+        new ConcurrentHashMap<>();
+
+    // item id -> what was counted for it, so it can be removed again
+    private final Map<String, CountedItem> countedItems = new HashMap<>();
+
+    private final Lock lock = new ReentrantLock();
+
+    // Writes after this time may not be counted yet
+    private volatile LocalDateTime syncedThrough;
+
+    @PostConstruct
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Query query = new Query();
+        query.fields().include(DOCUMENT_FIELDS);
+
+        lock.lock();
+        try (Stream<Item> items = mongoTemplate.stream(query, Item.class)) {
+            categories.clear();
+            countedItems.clear();
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                add(iterator.next());
+            }
+            syncedThrough = startedAt.minus(SYNC_OVERLAP);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the writes made through other instances since the last sync.
+     * A local write that races with the read can be counted with its
+     * previous tokens until the next sync, which reads it again.
+     */
+    @Scheduled(
+        initialDelayString = "${matching.index.sync-interval-ms:30000}",
+        fixedDelayString = "${matching.index.sync-interval-ms:30000}"
+    )
+    public void syncChanges() {
+        LocalDateTime since = syncedThrough;
+        if (since == null) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        Query updatedQuery = new Query(Criteria.where("updatedAt").gt(since));
+        updatedQuery.fields().include(DOCUMENT_FIELDS);
+        List<Item> updated = mongoTemplate.find(updatedQuery, Item.class);
+        List<ItemTombstone> deleted = mongoTemplate.find(
+            new Query(Criteria.where("deletedAt").gt(since)),
+            ItemTombstone.class
+        );
+
+        lock.lock();
+        try {
+            for (Item item : updated) {
+                removeEntry(item.getId());
+                add(item);
+            }
+            for (ItemTombstone tombstone : deleted) {
+                removeEntry(tombstone.getItemId());
+            }
+            syncedThrough = startedAt.minus(SYNC_OVERLAP);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Adds or replaces the counts for an item. */
+    public void index(Item item) {
+        lock.lock();
+        try {
+            removeEntry(item.getId());
+            add(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(String itemId) {
+        lock.lock();
+        try {
+            removeEntry(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Token frequencies of a category as they are now, for weighting tokens
+     * at scoring time. Unknown categories weight every token the same.
+     */
+    public CategoryFrequencies frequencies(String category) {
+        CategoryFrequencies frequencies = category != null
+            ? categories.get(category)
+            : null;
+        return frequencies != null ? frequencies : EMPTY;
+    }
+
+    private void add(Item item) {
+        if (item.getId() == null || item.getCategory() == null) {
+            return;
+        }
+
+        long[] tokens = documentTokens(item);
+        CategoryFrequencies frequencies = categories.computeIfAbsent(
+            item.getCategory(),
+            key -> new CategoryFrequencies()
+        );
+        frequencies.documentCount++;
+        for (long token : tokens) {
+            frequencies.documentFrequency.increment(token);
+        }
+
+        countedItems.put(
+            item.getId(),
+            new CountedItem(item.getCategory(), tokens)
+        );
+    }
+
+    private void removeEntry(String itemId) {
+        if (itemId == null) {
+            return;
+        }
+        CountedItem counted = countedItems.remove(itemId);
+        if (counted == null) {
+            return;
+        }
+
+        CategoryFrequencies frequencies = categories.get(counted.category());
+        if (frequencies == null) {
+            return;
+        }
+
+        frequencies.documentCount--;
+        for (long token : counted.tokens()) {
+            frequencies.documentFrequency.decrement(token);
+        }
+        if (frequencies.documentCount == 0) {
+            categories.remove(counted.category());
+        }
+    }
+
+    // Union of the title and description token hashes, sorted
+    private static long[] documentTokens(Item item) {
+        long[] title = item.getTitleTokenHashes() != null
+            ? item.getTitleTokenHashes()
+            : ItemTextTokenizer.hashTokens(item.getTitle());
+        long[] description = item.getDescriptionTokenHashes() != null
+            ? item.getDescriptionTokenHashes()
+            : ItemTextTokenizer.hashTokens(item.getDescription());
+
+        long[] union = new long[title.length + description.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < title.length || j < description.length) {
+            long next;
+            if (
+                j == description.length ||
+                (i < title.length && title[i] < description[j])
+            ) {
+                next = title[i++];
+            } else if (i == title.length || description[j] < title[i]) {
+                next = description[j++];
+            } else {
+                next = title[i++];
+                j++;
+            }
+            union[count++] = next;
+        }
+        return Arrays.copyOf(union, count);
+    }
+
+    public static class CategoryFrequencies {
+
+        private volatile int documentCount;
+
+        // token hash -> number of items in the category containing it
+        private final TokenCounts documentFrequency = new TokenCounts();
+
+        /** Smoothed inverse document frequency of a token in the category. */
+        public double idf(long token) {
+            return Math.log(
+                (documentCount + 1.0) / (documentFrequency.get(token) + 1.0)
+            ) + 1.0;
+        }
+    }
+
+    /**
+     * Counts keyed by token hash in primitive arrays, so lookups on the
+     * scoring path do not box the hash. Open addressing with linear probing,
+     * at most half full.
+     *
+     * Only written under the statistics lock; the scorer reads it without
+     * one and may briefly see a count that is being changed. Keys are never
+     * removed in place (their count drops to zero), so a lookup never misses
+     * a key because another one moved. Resizing drops the zero counts and
+     * publishes the new arrays in one volatile write.
+     */
+    static final class TokenCounts {
+
+        private static final int MIN_CAPACITY = 16;
+
+        private volatile Table table = new Table(MIN_CAPACITY);
+
+        // Slots taken, including keys whose count dropped to zero
+        private int used;
+
+        // 0 marks an empty slot, so the count of token 0 is kept here
+        private volatile int zeroTokenCount;
+
+        int get(long token) {
+            if (token == 0) {
+                return zeroTokenCount;
+            }
+            Table current = table;
+            int slot = current.find(token);
+            return current.keys[slot] == token ? current.counts[slot] : 0;
+        }
+
+        void increment(long token) {
+            if (token == 0) {
+                zeroTokenCount++;
+                return;
+            }
+            Table current = table;
+            int slot = current.find(token);
+            if (current.keys[slot] == token) {
+                current.counts[slot]++;
+                return;
+            }
+
+            if ((used + 1) * 2 > current.keys.length) {
+                current = resize(current);
+                slot = current.find(token);
+            }
+            current.counts[slot] = 1;
+            current.keys[slot] = token;
+            used++;
+        }
+
+        void decrement(long token) {
+            if (token == 0) {
+                if (zeroTokenCount > 0) {
+                    zeroTokenCount--;
+                }
+                return;
+            }
+            Table current = table;
+            int slot = current.find(token);
+            if (current.keys[slot] == token && current.counts[slot] > 0) {
+                current.counts[slot]--;
+            }
+        }
+
+        // Copies the live counts into a table with room for as many again
+        private Table resize(Table current) {
+            int live = 0;
+            for (int count : current.counts) {
+                if (count > 0) {
+                    live++;
+                }
+            }
+
+            int capacity = MIN_CAPACITY;
+            while (capacity < (live + 1) * 4) {
+                capacity <<= 1;
+            }
+            Table resized = new Table(capacity);
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.counts[i] > 0) {
+                    int slot = resized.find(current.keys[i]);
+                    resized.keys[slot] = current.keys[i];
+                    resized.counts[slot] = current.counts[i];
+                }
+            }
+            used = live;
+            table = resized;
+            return resized;
+        }
+
+        private static final class Table {
+
+            private final long[] keys;
+            private final int[] counts;
+            private final int shift;
+
+            Table(int capacity) {
+                keys = new long[capacity];
+                counts = new int[capacity];
+                shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            }
+
+            // Slot holding the token, or the empty slot where it would go
+            int find(long token) {
+                int mask = keys.length - 1;
+                int slot = (int) ((token * 0x9E3779B97F4A7C15L) >>> shift);
+                while (keys[slot] != 0 && keys[slot] != token) {
+                    slot = (slot + 1) & mask;
+                }
+                return slot;
+            }
+        }
+    }
+
+    private record CountedItem(String category, long[] tokens) {}
+}
@@ -0,0 +1,76 @@
+package com.mitwpu.finditnow.service;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over the description token hashes of an item.
+ *
+ * Two signatures agree in a given position with probability equal to the
+ * Jaccard similarity of the underlying token sets, which is what lets the
+ * LSH banding in ItemMatchIndex find similar descriptions without comparing
+ * every pair.
+ */
+public final class DescriptionMinHash {
+
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = 2;
+    public static final int SIGNATURE_LENGTH = BANDS * ROWS_PER_BAND;
+
+    // Odd multipliers and offsets for the hash family h_i(x) = a_i * x + b_i
+    private static final int[] MULTIPLIERS = new int[SIGNATURE_LENGTH];
+    private static final int[] OFFSETS = new int[SIGNATURE_LENGTH];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            seed = mix(seed + i);
+            MULTIPLIERS[i] = (int) seed | 1;
+            seed = mix(seed);
+            OFFSETS[i] = (int) seed;
+        }
+    }
+
+    private DescriptionMinHash() {}
+
+    /**
+     * Returns the signature of a token set, or an empty array when there are
+     * no tokens to hash.
+     */
+    public static int[] signature(long[] tokenHashes) {
+        if (tokenHashes == null || tokenHashes.length == 0) {
+            return new int[0];
+        }
+
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long token : tokenHashes) {
+            int tokenHash = (int) mix(token);
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                int value = MULTIPLIERS[i] * tokenHash + OFFSETS[i];
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /** Key identifying the rows of one band of a signature. */
+    static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = 0; row < ROWS_PER_BAND; row++) {
+            key = key * 0x100000001B3L + signature[band * ROWS_PER_BAND + row];
+        }
+        return mix(key);
+    }
+
+    // 64-bit finalizer from MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB93FE53B6A1DL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
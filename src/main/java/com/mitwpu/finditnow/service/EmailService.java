@@ -1,31 +1,21 @@
 package com.mitwpu.finditnow.service;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final MailDeliveryQueue mailDeliveryQueue;
+    private final OtpService otpService;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    // Store OTPs (in a real app, this would be in Redis or a database)
-    private final Map<String, String> otpStore = new ConcurrentHashMap<>();
-
-    // Store notification preferences (in a real app, this would be in a database)
-    private final Map<String, Map<String, Boolean>> notificationPreferences =
-        new ConcurrentHashMap<>();
-
     public void sendOtp(String email) {
         if (email == null || !email.endsWith("@mitwpu.edu.in")) {
             throw new IllegalArgumentException(
@@ -33,8 +23,7 @@ public class EmailService {
             );
         }
 
-        String otp = generateOtp();
-        otpStore.put(email, otp);
+        String otp = otpService.issue(email);
 
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
@@ -43,48 +32,18 @@ public class EmailService {
         message.setText(
             "Your OTP for email verification is: " +
             otp +
-            "\n\nThis code will expire in 10 minutes. If you did not request this OTP, please ignore this email."
+            "\n\nThis code will expire in " +
+            OtpService.OTP_TTL.toMinutes() +
+            " minutes. If you did not request this OTP, please ignore this email."
         );
 
-        mailSender.send(message);
+        // Not batched: the user is waiting for it, and a failure has to
+        // reach the caller
+        mailDeliveryQueue.sendNow(message);
     }
 
     public boolean verifyOtp(String email, String otp) {
-        String storedOtp = otpStore.get(email);
-        if (storedOtp != null && storedOtp.equals(otp)) {
-            otpStore.remove(email); // Remove after successful verification
-            return true;
-        }
-        return false;
-    }
-
-    private String generateOtp() {
-        Random random = new Random();
-        int otp = 100000 + random.nextInt(900000); // 6-digit OTP
-        return String.valueOf(otp);
-    }
-
-    public void setNotificationPreferences(
-        String userId,
-        Map<String, Boolean> preferences
-    ) {
-        notificationPreferences.put(userId, preferences);
-    }
-
-    public Map<String, Boolean> getNotificationPreferences(String userId) {
-        return notificationPreferences.getOrDefault(
-            userId,
-            getDefaultPreferences()
-        );
-    }
-
-    private Map<String, Boolean> getDefaultPreferences() {
-        Map<String, Boolean> defaults = new HashMap<>();
-        defaults.put("claimReceived", true);
-        defaults.put("claimUpdated", true);
-        defaults.put("matchFound", true);
-        defaults.put("itemRecovered", true);
-        return defaults;
+        return otpService.verify(email, otp);
     }
 
     // Methods for sending different types of notification emails
@@ -109,7 +68,7 @@ public class EmailService {
             "Regards,\nFindItNow Team"
         );
 
-        mailSender.send(message);
+        mailDeliveryQueue.submit(message);
     }
 
     public void sendClaimStatusNotification(
@@ -132,7 +91,7 @@ public class EmailService {
             "Regards,\nFindItNow Team"
         );
 
-        mailSender.send(message);
+        mailDeliveryQueue.submit(message);
     }
 
     public void sendMatchFoundNotification(
@@ -156,7 +115,30 @@ public class EmailService {
             "Regards,\nFindItNow Team"
         );
 
-        mailSender.send(message);
+        mailDeliveryQueue.submit(message);
+    }
+
+    public void sendDigestNotification(String email, List<String> updates) {
+        StringBuilder text = new StringBuilder(
+            "Hello,\n\nHere is what happened with your items:\n\n"
+        );
+        for (String update : updates) {
+            text.append("- ").append(update).append("\n");
+        }
+        text.append(
+            "\nPlease log in to your account to view the details.\n\n" +
+            "Regards,\nFindItNow Team"
+        );
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(email);
+        message.setSubject(
+            "FindItNow - " + updates.size() + " updates on your items"
+        );
+        message.setText(text.toString());
+
+        mailDeliveryQueue.submit(message);
     }
 
     public void sendItemRecoveredNotification(String email, String itemTitle) {
@@ -173,6 +155,6 @@ public class EmailService {
             "Regards,\nFindItNow Team"
         );
 
-        mailSender.send(message);
+        mailDeliveryQueue.submit(message);
     }
 }
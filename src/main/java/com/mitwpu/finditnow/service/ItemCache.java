@@ -0,0 +1,98 @@
+package com.mitwpu.finditnow.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mitwpu.finditnow.exception.ResourceNotFoundException;
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of items by id, shared by every service that looks an
+ * item up. Bounded by entry count; items that are rarely read are
+ * evicted first.
+ *
+ * Cached items are shared between requests and must not be modified. Write
+ * paths load their own copy from the repository and invalidate the entry
+ * once the write is saved. Invalidation only reaches this instance, so
+ * entries also expire after a short time, callers that know the current
+ * version can reject an older cached copy. Read-only paths use get; a write
+ * that must see the item as it is now (an ownership check before changing a
+ * claim) calls getFresh once and passes that copy on.
+ */
+@Component
+public class ItemCache {
+
+    private final ItemRepository itemRepository;
+    private final Cache<String, Item> items;
+
+    public ItemCache(
+        ItemRepository itemRepository,
+        @Value("${items.cache.max-size:10000}") long maxSize,
+        @Value("${items.cache.ttl-ms:30000}") long ttlMs
+    ) {
+        this.itemRepository = itemRepository;
+        this.items = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .recordStats()
+            .build();
+    }
+
+    public Item get(String id) {
+        // Missing items are not cached, so a later insert is seen at once
+        Item item = items.get(id, key -> itemRepository.findById(key).orElse(null));
+        if (item == null) {
+            throw new ResourceNotFoundException("Item not found with id: " + id);
+        }
+        return item;
+    }
+
+    // The cached copy if it is at the given version, else a fresh one
+    public Item get(String id, long version) {
+        Item item = items.getIfPresent(id);
+        if (
+            item != null &&
+            item.getVersion() != null &&
+            item.getVersion() == version
+        ) {
+            return item;
+        }
+        return getFresh(id);
+    }
+
+    // Always reads Mongo, and refreshes the cached copy with the result
+    public Item getFresh(String id) {
+        Item item = itemRepository.findById(id).orElse(null);
+        if (item == null) {
+            items.invalidate(id);
+            throw new ResourceNotFoundException("Item not found with id: " + id);
+        }
+        items.put(id, item);
+        return item;
+    }
+
+    public void invalidate(String id) {
+        items.invalidate(id);
+    }
+
+    // For bulk writes that touch an unknown set of items
+    public void invalidateAll() {
+        items.invalidateAll();
+    }
+
+    public Map<String, Long> snapshot() {
+        CacheStats stats = items.stats();
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", items.estimatedSize());
+        snapshot.put("hits", stats.hitCount());
+        snapshot.put("misses", stats.missCount());
+        snapshot.put("evictions", stats.evictionCount());
+        return snapshot;
+    }
+}
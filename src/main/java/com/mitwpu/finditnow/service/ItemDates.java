@@ -0,0 +1,29 @@
+package com.mitwpu.finditnow.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts the date an item was lost/found, as sent by the frontend, into
+ * the epoch day stored on the item for matching.
+ */
+public final class ItemDates {
+
+    private ItemDates() {}
+
+    /**
+     * Returns the epoch day for a "yyyy-MM-dd" date (an ISO date-time is
+     * accepted and truncated to its date), or null if the date is missing
+     * or malformed.
+     */
+    public static Long toEpochDay(String date) {
+        if (date == null || date.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.substring(0, 10)).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
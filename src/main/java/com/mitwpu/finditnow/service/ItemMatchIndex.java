@@ -0,0 +1,421 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.ItemTombstone;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import com.mitwpu.finditnow.repository.ItemTombstoneRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process index used to generate match candidates.
+ *
+ * Items are bucketed by (category, status). Inside each bucket, titles and
+ * descriptions are indexed word by word, and descriptions also through the
+ * LSH bands of their MinHash signature. A lookup returns the items of the
+ * opposite-status bucket that
+ * <ul>
+ *   <li>share a title word with the target,</li>
+ *   <li>share a description word that at most RARE_WORD_MAX_ITEMS items
+ *       of the bucket use, or</li>
+ *   <li>collide with the target in a description band.</li>
+ * </ul>
+ * Words used by more items than that are skipped at lookup, so common
+ * description words do not pull in the whole bucket. A pair whose only
+ * shared words are common is found through the bands alone, with
+ * probability 1 - (1 - J^2)^16 for description Jaccard similarity J: about
+ * 0.64 at J = 0.25, 0.85 at J = 1/3 and 0.99 at J = 0.5.
+ *
+ * Writes made through this instance are indexed as they happen. Writes
+ * made through other instances are picked up by a periodic sync from the
+ * items' updatedAt and the tombstones of deleted items; until then, items
+ * updated after syncedThrough() may be missing, so callers also look at
+ * those directly.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemMatchIndex {
+
+    // Description words used by more items of a bucket than this are too
+    // common to generate candidates on their own
+    static final int RARE_WORD_MAX_ITEMS = 100;
+
+    // Allows for clock skew between the instances that stamp updatedAt
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final ItemRepository itemRepository;
+    private final ItemTombstoneRepository itemTombstoneRepository;
+
+    private Entries entries = new Entries();
+
+    // Local writes made while a rebuild or sync reads from Mongo, replayed
+    // over what it read; null otherwise. A null item is a removal.
+    private Map<String, Item> pendingWrites;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile LocalDateTime syncedThrough;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Item> items = readTrackingWrites(itemRepository::findAll);
+
+        // Built off to the side, so lookups keep using the old entries
+        Entries rebuilt = new Entries();
+        for (Item item : items) {
+            rebuilt.add(item);
+        }
+
+        lock.writeLock().lock();
+        try {
+            replayPendingWrites(rebuilt);
+            entries = rebuilt;
+            syncedThrough = startedAt.minus(SYNC_OVERLAP);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the writes made through other instances since the last sync.
+     */
+    @Scheduled(
+        initialDelayString = "${matching.index.sync-interval-ms:30000}",
+        fixedDelayString = "${matching.index.sync-interval-ms:30000}"
+    )
+    public synchronized void syncChanges() {
+        LocalDateTime since = syncedThrough;
+        if (since == null) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Item> updated = readTrackingWrites(() ->
+            itemRepository.findByUpdatedAtAfter(since)
+        );
+        List<ItemTombstone> deleted;
+        try {
+            deleted = itemTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(
+                since,
+                Pageable.unpaged()
+            );
+        } catch (RuntimeException e) {
+            replayPendingWrites(null);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Item item : updated) {
+                entries.remove(item.getId());
+                entries.add(item);
+            }
+            for (ItemTombstone tombstone : deleted) {
+                entries.remove(tombstone.getItemId());
+            }
+            replayPendingWrites(entries);
+            syncedThrough = startedAt.minus(SYNC_OVERLAP);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Items updated after this time may not be indexed yet, or may be
+     * indexed with their previous fields. Null until the index is ready.
+     */
+    public LocalDateTime syncedThrough() {
+        return syncedThrough;
+    }
+
+    /**
+     * Adds or replaces the entry for an item. Items that are neither lost
+     * nor found (e.g. recovered) are only removed.
+     */
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(item.getId());
+            entries.add(item);
+            if (pendingWrites != null) {
+                pendingWrites.put(item.getId(), item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String itemId) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(itemId);
+            if (pendingWrites != null) {
+                pendingWrites.put(itemId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of items in the same category with the opposite status
+     * that share a title word or a rare description word with the target
+     * item, or collide with it in at least one description band.
+     */
+    public Set<String> findCandidateIds(Item target) {
+        String oppositeStatus = oppositeStatus(target.getStatus());
+        if (oppositeStatus == null || target.getCategory() == null) {
+            return Collections.emptySet();
+        }
+
+        long[] titleTokens = titleTokens(target);
+        long[] descriptionTokens = descriptionTokens(target);
+        long[] bandKeys = bandKeys(target, descriptionTokens);
+
+        lock.readLock().lock();
+        try {
+            Bucket bucket = entries.buckets.get(
+                bucketKey(target.getCategory(), oppositeStatus)
+            );
+            if (bucket == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> candidateIds = new HashSet<>();
+            for (long token : titleTokens) {
+                Set<String> ids = bucket.titlePostings.get(token);
+                if (ids != null) {
+                    candidateIds.addAll(ids);
+                }
+            }
+            for (long token : descriptionTokens) {
+                Set<String> ids = bucket.descriptionPostings.get(token);
+                if (ids != null && ids.size() <= RARE_WORD_MAX_ITEMS) {
+                    candidateIds.addAll(ids);
+                }
+            }
+            for (long bandKey : bandKeys) {
+                Set<String> ids = bucket.descriptionBands.get(bandKey);
+                if (ids != null) {
+                    candidateIds.addAll(ids);
+                }
+            }
+            candidateIds.remove(target.getId());
+            return candidateIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Runs a read from Mongo while recording the local writes made meanwhile,
+    // which the read may or may not have seen
+    private List<Item> readTrackingWrites(ItemReader reader) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            return reader.read();
+        } catch (RuntimeException e) {
+            replayPendingWrites(null);
+            throw e;
+        }
+    }
+
+    // Applies the recorded writes to the given entries, or just stops
+    // recording when they are null
+    private void replayPendingWrites(Entries target) {
+        lock.writeLock().lock();
+        try {
+            if (target != null && pendingWrites != null) {
+                for (Map.Entry<String, Item> write : pendingWrites.entrySet()) {
+                    target.remove(write.getKey());
+                    if (write.getValue() != null) {
+                        target.add(write.getValue());
+                    }
+                }
+            }
+            pendingWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static <K> void removeFromPostings(
+        Map<K, Set<String>> postings,
+        K key,
+        String itemId
+    ) {
+        Set<String> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static long[] titleTokens(Item item) {
+        return item.getTitleTokenHashes() != null
+            ? item.getTitleTokenHashes()
+            : ItemTextTokenizer.hashTokens(item.getTitle());
+    }
+
+    private static long[] descriptionTokens(Item item) {
+        return item.getDescriptionTokenHashes() != null
+            ? item.getDescriptionTokenHashes()
+            : ItemTextTokenizer.hashTokens(item.getDescription());
+    }
+
+    private static long[] bandKeys(Item item, long[] descriptionTokens) {
+        int[] signature = item.getDescriptionMinHash();
+        if (signature == null) {
+            signature = DescriptionMinHash.signature(descriptionTokens);
+        }
+        if (signature.length != DescriptionMinHash.SIGNATURE_LENGTH) {
+            return new long[0];
+        }
+
+        long[] bandKeys = new long[DescriptionMinHash.BANDS];
+        for (int band = 0; band < DescriptionMinHash.BANDS; band++) {
+            bandKeys[band] = DescriptionMinHash.bandKey(signature, band);
+        }
+        return bandKeys;
+    }
+
+    private static String bucketKey(String category, String status) {
+        return category + "|" + status;
+    }
+
+    private static String oppositeStatus(String status) {
+        if ("lost".equals(status)) {
+            return "found";
+        }
+        if ("found".equals(status)) {
+            return "lost";
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ItemReader {
+        List<Item> read();
+    }
+
+    // Everything the index holds; a rebuild fills a new one and swaps it in
+    private static class Entries {
+
+        private final Map<String, Bucket> buckets = new HashMap<>();
+
+        // item id -> what was indexed for it, so it can be removed again
+        private final Map<String, IndexedItem> indexedItems = new HashMap<>();
+
+        void add(Item item) {
+            if (
+                item.getId() == null ||
+                item.getCategory() == null ||
+                oppositeStatus(item.getStatus()) == null
+            ) {
+                return;
+            }
+
+            String bucketKey = bucketKey(item.getCategory(), item.getStatus());
+            long[] titleTokens = titleTokens(item);
+            long[] descriptionTokens = descriptionTokens(item);
+            long[] bandKeys = bandKeys(item, descriptionTokens);
+
+            Bucket bucket = buckets.computeIfAbsent(bucketKey, key -> new Bucket());
+            for (long token : titleTokens) {
+                bucket.titlePostings
+                    .computeIfAbsent(token, key -> new HashSet<>())
+                    .add(item.getId());
+            }
+            for (long token : descriptionTokens) {
+                bucket.descriptionPostings
+                    .computeIfAbsent(token, key -> new HashSet<>())
+                    .add(item.getId());
+            }
+            for (long bandKey : bandKeys) {
+                bucket.descriptionBands
+                    .computeIfAbsent(bandKey, key -> new HashSet<>())
+                    .add(item.getId());
+            }
+
+            indexedItems.put(
+                item.getId(),
+                new IndexedItem(bucketKey, titleTokens, descriptionTokens, bandKeys)
+            );
+        }
+
+        void remove(String itemId) {
+            IndexedItem indexed = indexedItems.remove(itemId);
+            if (indexed == null) {
+                return;
+            }
+
+            Bucket bucket = buckets.get(indexed.bucketKey());
+            if (bucket == null) {
+                return;
+            }
+
+            for (long token : indexed.titleTokens()) {
+                removeFromPostings(bucket.titlePostings, token, itemId);
+            }
+            for (long token : indexed.descriptionTokens()) {
+                removeFromPostings(bucket.descriptionPostings, token, itemId);
+            }
+            for (long bandKey : indexed.bandKeys()) {
+                removeFromPostings(bucket.descriptionBands, bandKey, itemId);
+            }
+            if (bucket.isEmpty()) {
+                buckets.remove(indexed.bucketKey());
+            }
+        }
+    }
+
+    private static class Bucket {
+
+        // title token hash -> item ids
+        private final Map<Long, Set<String>> titlePostings = new HashMap<>();
+
+        // description token hash -> item ids
+        private final Map<Long, Set<String>> descriptionPostings = new HashMap<>();
+
+        // description band key -> item ids
+        private final Map<Long, Set<String>> descriptionBands = new HashMap<>();
+
+        boolean isEmpty() {
+            return (
+                titlePostings.isEmpty() &&
+                descriptionPostings.isEmpty() &&
+                descriptionBands.isEmpty()
+            );
+        }
+    }
+
+    private record IndexedItem(
+        String bucketKey,
+        long[] titleTokens,
+        long[] descriptionTokens,
+        long[] bandKeys
+    ) {}
+}
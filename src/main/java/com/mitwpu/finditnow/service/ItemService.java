@@ -1,18 +1,43 @@
 package com.mitwpu.finditnow.service;
 
+import com.mitwpu.finditnow.dto.ItemChanges;
+import com.mitwpu.finditnow.dto.ItemFilter;
+import com.mitwpu.finditnow.dto.ItemPage;
+import com.mitwpu.finditnow.dto.ItemSummary;
 import com.mitwpu.finditnow.exception.ResourceNotFoundException;
 import com.mitwpu.finditnow.model.Claim;
 import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.ItemTombstone;
 import com.mitwpu.finditnow.model.User;
 import com.mitwpu.finditnow.repository.ClaimRepository;
 import com.mitwpu.finditnow.repository.ItemRepository;
+import com.mitwpu.finditnow.repository.ItemTombstoneRepository;
+import com.mitwpu.finditnow.repository.MatchRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Range;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -21,38 +46,190 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ItemService {
 
+    // Only candidates scoring above this are considered matches
+    private static final double MATCH_THRESHOLD = 0.4;
+
+    // Score component weights, adding up to 1
+    private static final double CATEGORY_WEIGHT = 0.3;
+    private static final double LOCATION_WEIGHT = 0.2;
+    private static final double DATE_WEIGHT = 0.15;
+    private static final double TITLE_WEIGHT = 0.2;
+    private static final double DESCRIPTION_WEIGHT = 0.15;
+
+    // Returned by the staged scorer for candidates that were pruned
+    private static final double PRUNED = -1.0;
+
+    // How long deletes can be synced; matches the TTL on ItemTombstone
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+
+    // Writes in flight when a change token was issued can carry a slightly
+    // earlier timestamp, so change queries look back this much further
+    private static final Duration CHANGES_OVERLAP = Duration.ofSeconds(5);
+
     private final ItemRepository itemRepository;
     private final ClaimRepository claimRepository;
+    private final ItemMatchIndex itemMatchIndex;
+    private final MatchRepository matchRepository;
+    private final ForkJoinPool matchingPool;
+    private final MatchingStats matchingStats;
+    private final CampusLocationDictionary campusLocationDictionary;
+    private final CorpusStatistics corpusStatistics;
+    private final ItemTombstoneRepository itemTombstoneRepository;
+    private final ItemCache itemCache;
+
+    // MatchService depends on this service, so it is looked up when needed
+    private final ObjectProvider<MatchService> matchService;
+
+    // Candidates are only read from this many days either side of the target
+    @Value("${matching.date-window-days:30}")
+    private int dateWindowDays;
+
+    // Category buckets larger than this are scored in parallel
+    @Value("${matching.parallel-threshold:2000}")
+    private int parallelThreshold;
 
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    // Item feed page size when none is requested, and the most allowed
+    @Value("${items.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${items.page-size.max:100}")
+    private int maxPageSize;
+
+    // Most item ids one batch match request may ask for
+    @Value("${matching.batch.max-ids:200}")
+    private int maxBatchIds;
+
+    // More changes than this and clients reload the feed instead
+    @Value("${items.changes.max:500}")
+    private int maxChanges;
+
+    // Also count tokens contained in one another ("phone" in "iphone") as
+    // overlapping; compares token strings, so it is off by default
+    @Value("${matching.substring-containment:false}")
+    private boolean substringContainment;
+
+    /**
+     * One page of the item feed, newest first. The cursor is the opaque
+     * nextCursor of the previous page, or null for the first page.
+     */
+    public ItemPage getItems(ItemFilter filter, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException(
+                "Page size must be between 1 and " + maxPageSize
+            );
+        }
+
+        LocalDateTime afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            afterCreatedAt = position[0].isEmpty()
+                ? null
+                : LocalDateTime.parse(position[0]);
+            afterId = position[1];
+        }
+
+        // One extra item tells whether there is a next page
+        List<ItemSummary> items = itemRepository.findPage(
+            filter,
+            afterCreatedAt,
+            afterId,
+            pageSize + 1
+        );
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            nextCursor = encodeCursor(items.get(pageSize - 1));
+        }
+        return new ItemPage(items, nextCursor);
     }
 
+    /**
+     * Items created, updated or deleted since the token returned by the
+     * previous call. Without a usable token, only a new token is returned
+     * and reset is set. Changes near the token boundary can be returned
+     * twice, so clients apply them by id.
+     */
+    public ItemChanges getChanges(String since) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = encodeToken(now);
+
+        LocalDateTime sinceTime = since != null && !since.isEmpty()
+            ? decodeToken(since)
+            : null;
+        if (
+            sinceTime == null ||
+            sinceTime.isBefore(now.minus(TOMBSTONE_RETENTION))
+        ) {
+            return new ItemChanges(List.of(), List.of(), token, true);
+        }
+
+        LocalDateTime from = sinceTime.minus(CHANGES_OVERLAP);
+        PageRequest limit = PageRequest.of(0, maxChanges + 1);
+        List<ItemSummary> items =
+            itemRepository.findSummariesByUpdatedAtAfterOrderByUpdatedAtAsc(
+                from,
+                limit
+            );
+        List<ItemTombstone> tombstones =
+            itemTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(
+                from,
+                limit
+            );
+        if (items.size() + tombstones.size() > maxChanges) {
+            return new ItemChanges(List.of(), List.of(), token, true);
+        }
+
+        List<String> deletedIds = tombstones
+            .stream()
+            .map(ItemTombstone::getItemId)
+            .collect(Collectors.toList());
+        return new ItemChanges(items, deletedIds, token, false);
+    }
+
+    // Shared cached copy; must not be modified
     public Item getItemById(String id) {
-        return itemRepository
-            .findById(id)
+        return itemCache.get(id);
+    }
+
+    // As above, but never older than the given version
+    public Item getItemById(String id, long version) {
+        return itemCache.get(id, version);
+    }
+
+    public long getItemVersion(String id) {
+        Long version = itemRepository
+            .findVersionById(id)
             .orElseThrow(() ->
                 new ResourceNotFoundException("Item not found with id: " + id)
-            );
+            )
+            .getVersion();
+        return version != null ? version : 0;
     }
 
-    public List<Item> getUserItems() {
+    public List<ItemSummary> getUserItems() {
         String userId = getCurrentUserId();
-        return itemRepository.findByUserId(userId);
+        return itemRepository.findSummariesByUserId(userId);
     }
 
     public Item createItem(Item item) {
         String userId = getCurrentUserId();
 
         item.setUserId(userId);
+        item.setVersion(null);
+        applyMatchFields(item);
         item.setCreatedAt(LocalDateTime.now());
         item.setUpdatedAt(LocalDateTime.now());
 
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemMatchIndex.index(savedItem);
+        corpusStatistics.index(savedItem);
+        return savedItem;
     }
 
     public Item updateItem(String id, Item updatedItem) {
-        Item existingItem = getItemById(id);
+        Item existingItem = loadItem(id);
         String userId = getCurrentUserId();
 
         // Check if the current user is the owner of the item
@@ -113,13 +290,21 @@ public class ItemService {
                 ? updatedItem.getSecretAnswer()
                 : existingItem.getSecretAnswer()
         );
+        applyMatchFields(existingItem);
         existingItem.setUpdatedAt(LocalDateTime.now());
 
-        return itemRepository.save(existingItem);
+        Item savedItem = itemRepository.save(existingItem);
+        itemCache.invalidate(id);
+        itemMatchIndex.index(savedItem);
+        corpusStatistics.index(savedItem);
+        if (savedItem.getStatus().equals("recovered")) {
+            matchRepository.deleteByItemIdOrCandidateId(id, id);
+        }
+        return savedItem;
     }
 
     public Item updateItemStatus(String id, String status) {
-        Item existingItem = getItemById(id);
+        Item existingItem = loadItem(id);
         String userId = getCurrentUserId();
 
         // Check if the current user is the owner of the item
@@ -154,14 +339,24 @@ public class ItemService {
             );
         }
 
+        String previousStatus = existingItem.getStatus();
         existingItem.setStatus(status);
         existingItem.setUpdatedAt(LocalDateTime.now());
 
-        return itemRepository.save(existingItem);
+        Item savedItem = itemRepository.save(existingItem);
+        itemCache.invalidate(id);
+        itemMatchIndex.index(savedItem);
+        if (savedItem.getStatus().equals("recovered")) {
+            matchRepository.deleteByItemIdOrCandidateId(id, id);
+        } else if (!status.equals(previousStatus)) {
+            // Lost <-> found: the old edges point at items of the new status
+            matchService.getObject().refreshMatches(savedItem);
+        }
+        return savedItem;
     }
 
     public void deleteItem(String id) {
-        Item existingItem = getItemById(id);
+        Item existingItem = loadItem(id);
         String userId = getCurrentUserId();
 
         // Check if the current user is the owner of the item
@@ -172,133 +367,618 @@ public class ItemService {
         }
 
         itemRepository.deleteById(id);
+        itemCache.invalidate(id);
+        itemTombstoneRepository.save(
+            ItemTombstone.builder()
+                .itemId(id)
+                .deletedAt(LocalDateTime.now())
+                .build()
+        );
+        itemMatchIndex.remove(id);
+        corpusStatistics.remove(id);
+        matchRepository.deleteByItemIdOrCandidateId(id, id);
     }
 
     public List<Item> findMatchingItems(String itemId) {
         // Get the item for which we want to find matches
         Item targetItem = getItemById(itemId);
 
-        // If the item is not lost or found, don't try to match
+        // Keep the top 5 matches by score (highest first)
+        List<String> topIds = scoreMatches(targetItem, 5)
+            .stream()
+            .map(match -> match.getItem().getId())
+            .collect(Collectors.toList());
+
+        return getItemsByIds(topIds);
+    }
+
+    // Add the missing method that's being called in ItemController
+    public List<Item> getMatchingItems(String itemId) {
+        return findMatchingItems(itemId);
+    }
+
+    // Loads full documents for the given ids, keeping the order of the ids
+    public List<Item> getItemsByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Item> itemsById = new HashMap<>();
+        for (Item item : itemRepository.findAllById(ids)) {
+            itemsById.put(item.getId(), item);
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (String id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Checks a batch match request before any scoring starts: at most
+     * max-ids ids, and only the caller's own items unless they are an admin.
+     * Called on the request thread, since streamed batches are written from
+     * another one.
+     */
+    public void checkMatchingBatch(List<String> itemIds) {
+        // {"itemIds": null} reaches here as a null list
+        if (itemIds == null || itemIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("itemIds must be a list of item ids");
+        }
+        if (itemIds.size() > maxBatchIds) {
+            throw new IllegalArgumentException(
+                "At most " + maxBatchIds + " item ids can be matched at once"
+            );
+        }
         if (
-            !targetItem.getStatus().equals("lost") &&
-            !targetItem.getStatus().equals("found")
+            !isCurrentUserAdmin() &&
+            itemRepository.existsByIdInAndUserIdNot(itemIds, getCurrentUserId())
         ) {
-            return new ArrayList<>();
+            throw new IllegalArgumentException(
+                "You are not authorized to match these items"
+            );
         }
+    }
 
-        // Get items with opposite status
-        String oppositeStatus = targetItem.getStatus().equals("lost")
-            ? "found"
-            : "lost";
-        List<Item> potentialMatches = itemRepository
-            .findAll()
-            .stream()
-            .filter(item -> !item.getId().equals(itemId)) // Don't match with itself
-            .filter(item -> item.getStatus().equals(oppositeStatus)) // Match opposite status
-            .filter(item -> item.getCategory().equals(targetItem.getCategory())) // Same category
-            .collect(Collectors.toList());
+    /**
+     * Finds the top matches for many items at once, keeping the order of
+     * the requested ids. Unknown ids and items that cannot be matched map to
+     * an empty list.
+     */
+    public Map<String, List<ItemSummary>> findMatchingItems(
+        List<String> itemIds
+    ) {
+        Map<String, List<ItemSummary>> results = new LinkedHashMap<>();
+        for (String itemId : itemIds) {
+            results.put(itemId, new ArrayList<>());
+        }
+        findMatchingItems(itemIds, Integer.MAX_VALUE, results::put);
+        return results;
+    }
 
-        // Calculate match score for each potential match
-        List<ItemMatch> scoredMatches = new ArrayList<>();
+    /**
+     * Finds the top matches for many items at once and hands them to the
+     * consumer as they are ready. Targets are grouped by the bucket they
+     * match against so each bucket is read from Mongo only once, and the
+     * matched items are loaded `chunkSize` targets at a time.
+     */
+    public void findMatchingItems(
+        List<String> itemIds,
+        int chunkSize,
+        BiConsumer<String, List<ItemSummary>> consumer
+    ) {
+        Set<String> requestedIds = new LinkedHashSet<>(itemIds);
+        Map<String, List<Item>> targetsByBucket = new LinkedHashMap<>();
+        for (Item target : itemRepository.findByIdIn(requestedIds)) {
+            requestedIds.remove(target.getId());
+            String oppositeStatus = oppositeStatus(target.getStatus());
+            if (oppositeStatus == null) {
+                consumer.accept(target.getId(), new ArrayList<>());
+                continue;
+            }
+            targetsByBucket
+                .computeIfAbsent(
+                    target.getCategory() + "|" + oppositeStatus,
+                    key -> new ArrayList<>()
+                )
+                .add(target);
+        }
+        // Whatever is left was not found
+        for (String itemId : requestedIds) {
+            consumer.accept(itemId, new ArrayList<>());
+        }
+
+        Map<String, List<String>> pending = new LinkedHashMap<>();
+        for (List<Item> targets : targetsByBucket.values()) {
+            Item firstTarget = targets.get(0);
+            Map<String, Item> pool = new HashMap<>();
+            for (Item item : itemRepository.findByCategoryAndStatus(
+                firstTarget.getCategory(),
+                oppositeStatus(firstTarget.getStatus())
+            )) {
+                pool.put(item.getId(), item);
+            }
 
+            for (Item target : targets) {
+                List<String> topIds = scoreCandidates(
+                    target,
+                    candidatesFromPool(target, pool),
+                    5
+                )
+                    .stream()
+                    .map(match -> match.getItem().getId())
+                    .collect(Collectors.toList());
+                pending.put(target.getId(), topIds);
+
+                if (pending.size() >= chunkSize) {
+                    emitMatches(pending, consumer);
+                    pending.clear();
+                }
+            }
+        }
+        emitMatches(pending, consumer);
+    }
+
+    // Applies the same narrowing as scoreMatches to an already loaded bucket
+    private List<Item> candidatesFromPool(Item target, Map<String, Item> pool) {
+        Collection<Item> candidates;
+        LocalDateTime syncedThrough = itemMatchIndex.syncedThrough();
+        if (syncedThrough != null) {
+            Set<String> candidateIds = itemMatchIndex.findCandidateIds(target);
+            candidates = new ArrayList<>();
+            for (Item item : pool.values()) {
+                // Items written elsewhere since the last sync may not be
+                // indexed yet
+                if (
+                    candidateIds.contains(item.getId()) ||
+                    (item.getUpdatedAt() != null &&
+                        item.getUpdatedAt().isAfter(syncedThrough))
+                ) {
+                    candidates.add(item);
+                }
+            }
+        } else {
+            candidates = pool.values();
+        }
+
+        List<Item> potentialMatches = new ArrayList<>();
+        for (Item item : candidates) {
+            if (item.getId().equals(target.getId())) {
+                continue;
+            }
+            if (
+                target.getEpochDay() != null &&
+                (item.getEpochDay() == null ||
+                    Math.abs(item.getEpochDay() - target.getEpochDay()) >
+                    dateWindowDays)
+            ) {
+                continue;
+            }
+            potentialMatches.add(item);
+        }
+        return potentialMatches;
+    }
+
+    // Loads the summaries of every matched item of the pending targets in
+    // one query
+    private void emitMatches(
+        Map<String, List<String>> topIdsByItem,
+        BiConsumer<String, List<ItemSummary>> consumer
+    ) {
+        if (topIdsByItem.isEmpty()) {
+            return;
+        }
+
+        Set<String> matchedIds = new HashSet<>();
+        for (List<String> topIds : topIdsByItem.values()) {
+            matchedIds.addAll(topIds);
+        }
+        Map<String, ItemSummary> itemsById = new HashMap<>();
+        for (ItemSummary item : itemRepository.findSummariesByIdIn(matchedIds)) {
+            itemsById.put(item.getId(), item);
+        }
+
+        for (Map.Entry<String, List<String>> entry : topIdsByItem.entrySet()) {
+            List<ItemSummary> matches = new ArrayList<>();
+            for (String matchedId : entry.getValue()) {
+                ItemSummary item = itemsById.get(matchedId);
+                if (item != null) {
+                    matches.add(item);
+                }
+            }
+            consumer.accept(entry.getKey(), matches);
+        }
+    }
+
+    // Scores the candidates for an item and returns every one above the
+    // match threshold, highest score first
+    List<ItemMatch> scoreMatches(Item targetItem) {
+        return scoreMatches(targetItem, Integer.MAX_VALUE);
+    }
+
+    // Scores the candidates for an item and returns at most `limit` of them
+    // above the match threshold, highest score first. Candidates only carry
+    // the match projection.
+    List<ItemMatch> scoreMatches(Item targetItem, int limit) {
+        return scoreCandidates(targetItem, findCandidates(targetItem), limit);
+    }
+
+    /**
+     * Scores the candidates for an item in both directions and returns every
+     * candidate above the match threshold either way, highest forward score
+     * first. Each match's reverse score is how the candidate scores the
+     * item, and a direction that is not above the threshold scores below
+     * zero. Only containment similarity is asymmetric, so with cosine
+     * similarity the reverse score is the forward one.
+     */
+    List<ItemMatch> scoreMatchesBothWays(Item targetItem) {
+        List<Item> potentialMatches = findCandidates(targetItem);
+        List<ItemMatch> forwardMatches = scoreCandidates(
+            targetItem,
+            potentialMatches,
+            Integer.MAX_VALUE
+        );
+        if (!substringContainment) {
+            return forwardMatches;
+        }
+
+        Map<String, ItemMatch> forwardById = new HashMap<>();
+        for (ItemMatch match : forwardMatches) {
+            forwardById.put(match.getItem().getId(), match);
+        }
+        List<ItemMatch> matches = new ArrayList<>();
         for (Item item : potentialMatches) {
-            double score = calculateMatchScore(targetItem, item);
-            if (score > 0.4) { // Only consider items with at least 40% match
-                scoredMatches.add(new ItemMatch(item, score));
+            ItemMatch forward = forwardById.get(item.getId());
+            matchingStats.recordCandidate();
+            double reverseScore = calculateMatchScore(
+                item,
+                targetItem,
+                MATCH_THRESHOLD
+            );
+            if (forward != null || reverseScore > MATCH_THRESHOLD) {
+                matches.add(
+                    new ItemMatch(
+                        item,
+                        forward != null ? forward.getScore() : PRUNED,
+                        reverseScore > MATCH_THRESHOLD ? reverseScore : PRUNED
+                    )
+                );
             }
         }
+        matches.sort(
+            Comparator.comparingDouble(ItemMatch::getScore).reversed()
+        );
+        return matches;
+    }
 
-        // Sort matches by score (highest first) and return the top 5
-        return scoredMatches
-            .stream()
-            .sorted(Comparator.comparing(ItemMatch::getScore).reversed())
-            .limit(5)
-            .map(ItemMatch::getItem)
-            .collect(Collectors.toList());
+    // Candidates that can match the item, carrying only the match
+    // projection; empty if the item is not lost or found
+    private List<Item> findCandidates(Item targetItem) {
+        // If the item is not lost or found, don't try to match
+        String oppositeStatus = oppositeStatus(targetItem.getStatus());
+        if (oppositeStatus == null) {
+            return new ArrayList<>();
+        }
+
+        // Category, status and the date window are filtered in Mongo and only
+        // the fields the scorer reads are fetched
+        List<Item> potentialMatches;
+        LocalDateTime syncedThrough = itemMatchIndex.syncedThrough();
+        if (syncedThrough != null) {
+            // Only items sharing at least one significant word can score
+            Set<String> candidateIds = itemMatchIndex.findCandidateIds(
+                targetItem
+            );
+            List<Item> indexed;
+            List<Item> recent;
+            if (targetItem.getEpochDay() == null) {
+                indexed = itemRepository.findByCategoryAndStatusAndIdIn(
+                    targetItem.getCategory(),
+                    oppositeStatus,
+                    candidateIds
+                );
+                recent = itemRepository.findByCategoryAndStatusAndUpdatedAtAfter(
+                    targetItem.getCategory(),
+                    oppositeStatus,
+                    syncedThrough
+                );
+            } else {
+                Range<Long> window = dateWindow(targetItem.getEpochDay());
+                indexed =
+                    itemRepository.findByCategoryAndStatusAndEpochDayBetweenAndIdIn(
+                        targetItem.getCategory(),
+                        oppositeStatus,
+                        window,
+                        candidateIds
+                    );
+                recent =
+                    itemRepository.findByCategoryAndStatusAndEpochDayBetweenAndUpdatedAtAfter(
+                        targetItem.getCategory(),
+                        oppositeStatus,
+                        window,
+                        syncedThrough
+                    );
+            }
+
+            // Items written elsewhere since the last sync may not be indexed
+            // yet, so they are scored whether or not they share a word
+            Map<String, Item> byId = new LinkedHashMap<>();
+            for (Item item : indexed) {
+                byId.put(item.getId(), item);
+            }
+            for (Item item : recent) {
+                byId.putIfAbsent(item.getId(), item);
+            }
+            byId.remove(targetItem.getId());
+            potentialMatches = new ArrayList<>(byId.values());
+        } else if (targetItem.getEpochDay() == null) {
+            // Index is still warming up, scan the whole category bucket
+            potentialMatches = itemRepository.findByCategoryAndStatusAndIdNot(
+                targetItem.getCategory(),
+                oppositeStatus,
+                targetItem.getId()
+            );
+        } else {
+            // Index is still warming up, scan the category bucket's date window
+            potentialMatches =
+                itemRepository.findByCategoryAndStatusAndEpochDayBetweenAndIdNot(
+                    targetItem.getCategory(),
+                    oppositeStatus,
+                    dateWindow(targetItem.getEpochDay()),
+                    targetItem.getId()
+                );
+        }
+        return potentialMatches;
     }
 
-    // Add the missing method that's being called in ItemController
-    public List<Item> getMatchingItems(String itemId) {
-        return findMatchingItems(itemId);
+    // Scores the given candidates, splitting large buckets across the
+    // matching pool, and returns at most `limit` of them above the match
+    // threshold, highest score first
+    private List<ItemMatch> scoreCandidates(
+        Item targetItem,
+        List<Item> potentialMatches,
+        int limit
+    ) {
+        TopMatchHeap topMatches;
+        if (potentialMatches.size() > parallelThreshold) {
+            topMatches = matchingPool.invoke(
+                new ScoreTask(targetItem, potentialMatches, limit)
+            );
+        } else {
+            topMatches = scoreRange(
+                targetItem,
+                potentialMatches,
+                0,
+                potentialMatches.size(),
+                limit
+            );
+        }
+
+        return topMatches.toSortedList();
     }
 
-    private double calculateMatchScore(Item targetItem, Item potentialMatch) {
+    // Items with the returned status are candidates; null if the item cannot
+    // be matched
+    private static String oppositeStatus(String status) {
+        if ("lost".equals(status)) {
+            return "found";
+        }
+        if ("found".equals(status)) {
+            return "lost";
+        }
+        return null;
+    }
+
+    private Range<Long> dateWindow(long epochDay) {
+        return Range.closed(epochDay - dateWindowDays, epochDay + dateWindowDays);
+    }
+
+    private TopMatchHeap scoreRange(
+        Item targetItem,
+        List<Item> potentialMatches,
+        int from,
+        int to,
+        int limit
+    ) {
+        TopMatchHeap topMatches = new TopMatchHeap(limit);
+        for (int i = from; i < to; i++) {
+            Item item = potentialMatches.get(i);
+            // A candidate has to beat the threshold and, once the heap is
+            // full, the lowest score currently kept
+            double cutoff = Math.max(
+                MATCH_THRESHOLD,
+                topMatches.minScoreToEnter()
+            );
+            matchingStats.recordCandidate();
+            double score = calculateMatchScore(targetItem, item, cutoff);
+            if (score > MATCH_THRESHOLD) { // Only consider items with at least 40% match
+                topMatches.offer(new ItemMatch(item, score));
+            }
+        }
+        return topMatches;
+    }
+
+    double calculateMatchScore(Item targetItem, Item potentialMatch) {
+        return calculateMatchScore(
+            targetItem,
+            potentialMatch,
+            Double.NEGATIVE_INFINITY
+        );
+    }
+
+    // Evaluates the score components from cheapest to most expensive and
+    // returns PRUNED as soon as the best possible final score can no longer
+    // exceed the cutoff. The weights add up to 1, so no normalizing is needed.
+    private double calculateMatchScore(
+        Item targetItem,
+        Item potentialMatch,
+        double cutoff
+    ) {
         double score = 0.0;
-        double totalWeight = 0.0;
 
         // Category match (highest weight)
         if (targetItem.getCategory().equals(potentialMatch.getCategory())) {
-            score += 0.3;
+            score += CATEGORY_WEIGHT;
         }
-        totalWeight += 0.3;
 
-        // Location match
+        // Location proximity; exact text match when either location is not
+        // on the campus dictionary
         if (
+            targetItem.getLocationId() != null &&
+            potentialMatch.getLocationId() != null
+        ) {
+            score += LOCATION_WEIGHT * campusLocationDictionary.proximity(
+                targetItem.getLocationId(),
+                potentialMatch.getLocationId()
+            );
+        } else if (
             targetItem.getLocation() != null &&
             potentialMatch.getLocation() != null &&
             targetItem.getLocation().equals(potentialMatch.getLocation())
         ) {
-            score += 0.2;
+            score += LOCATION_WEIGHT;
         }
-        totalWeight += 0.2;
 
-        // Date proximity (within 5 days)
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(
-                "yyyy-MM-dd"
-            );
-            LocalDateTime targetDate = LocalDateTime.parse(
-                targetItem.getDate(),
-                formatter
-            );
-            LocalDateTime matchDate = LocalDateTime.parse(
-                potentialMatch.getDate(),
-                formatter
-            );
+        if (score + DATE_WEIGHT + TITLE_WEIGHT + DESCRIPTION_WEIGHT <= cutoff) {
+            matchingStats.recordPrunedAfterLocation();
+            return PRUNED;
+        }
 
+        // Date proximity (within 5 days)
+        if (
+            targetItem.getEpochDay() != null &&
+            potentialMatch.getEpochDay() != null
+        ) {
             long daysBetween = Math.abs(
-                targetDate.toLocalDate().toEpochDay() -
-                matchDate.toLocalDate().toEpochDay()
+                targetItem.getEpochDay() - potentialMatch.getEpochDay()
             );
             if (daysBetween <= 5) {
-                score += 0.15 * (1.0 - (daysBetween / 5.0));
+                score += DATE_WEIGHT * (1.0 - (daysBetween / 5.0));
             }
-        } catch (Exception e) {
-            // If date parsing fails, skip this score component
         }
-        totalWeight += 0.15;
 
-        // Title similarity
-        String targetTitle = targetItem.getTitle().toLowerCase();
-        String matchTitle = potentialMatch.getTitle().toLowerCase();
-        double titleSimilarity = calculateTextSimilarity(
-            targetTitle,
-            matchTitle
-        );
-        score += 0.2 * titleSimilarity;
-        totalWeight += 0.2;
+        if (score + TITLE_WEIGHT + DESCRIPTION_WEIGHT <= cutoff) {
+            matchingStats.recordPrunedAfterDate();
+            return PRUNED;
+        }
+
+        // Title similarity, weighted by the target's category
+        CorpusStatistics.CategoryFrequencies frequencies =
+            corpusStatistics.frequencies(targetItem.getCategory());
+        double titleSimilarity = substringContainment
+            ? calculateContainmentSimilarity(
+                targetItem.getTitleTokens(),
+                potentialMatch.getTitleTokens()
+            )
+            : calculateCosineSimilarity(
+                targetItem.getTitleTokenHashes(),
+                potentialMatch.getTitleTokenHashes(),
+                frequencies
+            );
+        score += TITLE_WEIGHT * titleSimilarity;
+
+        if (score + DESCRIPTION_WEIGHT <= cutoff) {
+            matchingStats.recordPrunedAfterTitle();
+            return PRUNED;
+        }
 
         // Description similarity
-        String targetDesc = targetItem.getDescription().toLowerCase();
-        String matchDesc = potentialMatch.getDescription().toLowerCase();
-        double descSimilarity = calculateTextSimilarity(targetDesc, matchDesc);
-        score += 0.15 * descSimilarity;
-        totalWeight += 0.15;
+        double descSimilarity = substringContainment
+            ? calculateContainmentSimilarity(
+                targetItem.getDescriptionTokens(),
+                potentialMatch.getDescriptionTokens()
+            )
+            : calculateCosineSimilarity(
+                targetItem.getDescriptionTokenHashes(),
+                potentialMatch.getDescriptionTokenHashes(),
+                frequencies
+            );
+        score += DESCRIPTION_WEIGHT * descSimilarity;
 
-        // Normalize score
-        return score / totalWeight;
+        matchingStats.recordFullyScored();
+        return score;
     }
 
-    private double calculateTextSimilarity(String text1, String text2) {
-        // Simple word overlap similarity
-        String[] words1 = text1.split("\\s+");
-        String[] words2 = text2.split("\\s+");
+    // Cosine similarity of two TF-IDF vectors over sorted token hashes.
+    // Tokens are deduplicated, so every term frequency is 1 and the hash
+    // arrays are the raw vectors; each token is weighted by its current IDF
+    // in the category here, so weights never go stale as the corpus grows.
+    double calculateCosineSimilarity(
+        long[] tokens1,
+        long[] tokens2,
+        CorpusStatistics.CategoryFrequencies frequencies
+    ) {
+        if (
+            tokens1 == null ||
+            tokens2 == null ||
+            !sharesToken(tokens1, tokens2)
+        ) {
+            return 0.0;
+        }
 
-        int matches = 0;
-        for (String word1 : words1) {
-            if (word1.length() <= 3) continue; // Skip short words
+        double dot = 0.0;
+        double norm1 = 0.0;
+        double norm2 = 0.0;
+        int i = 0;
+        int j = 0;
+        while (i < tokens1.length || j < tokens2.length) {
+            if (
+                j == tokens2.length ||
+                (i < tokens1.length && tokens1[i] < tokens2[j])
+            ) {
+                double weight = frequencies.idf(tokens1[i++]);
+                norm1 += weight * weight;
+            } else if (i == tokens1.length || tokens2[j] < tokens1[i]) {
+                double weight = frequencies.idf(tokens2[j++]);
+                norm2 += weight * weight;
+            } else {
+                double weight = frequencies.idf(tokens1[i]);
+                dot += weight * weight;
+                norm1 += weight * weight;
+                norm2 += weight * weight;
+                i++;
+                j++;
+            }
+        }
+
+        return Math.min(dot / Math.sqrt(norm1 * norm2), 1.0);
+    }
 
-            for (String word2 : words2) {
+    // Whether two sorted token hash arrays have a token in common; checked
+    // before any IDF lookups, since most candidates share none
+    private static boolean sharesToken(long[] tokens1, long[] tokens2) {
+        int i = 0;
+        int j = 0;
+        while (i < tokens1.length && j < tokens2.length) {
+            if (tokens1[i] == tokens2[j]) {
+                return true;
+            } else if (tokens1[i] < tokens2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    // Share of the first item's tokens that also appear in the second one,
+    // where a token also counts when a longer token of the other item
+    // contains it or is contained in it
+    double calculateContainmentSimilarity(
+        List<String> tokens1,
+        List<String> tokens2
+    ) {
+        if (tokens1 == null || tokens2 == null || tokens1.isEmpty()) {
+            return 0.0;
+        }
+
+        int matches = 0;
+        for (String word1 : tokens1) {
+            for (String word2 : tokens2) {
                 if (
                     word1.equals(word2) ||
                     (word1.length() > 4 && word2.contains(word1)) ||
@@ -310,7 +990,88 @@ public class ItemService {
             }
         }
 
-        return (double) matches / Math.max(words1.length, 1);
+        return (double) matches / tokens1.size();
+    }
+
+    // Derived fields the matcher reads instead of the raw title, description,
+    // location and date
+    void applyMatchFields(Item item) {
+        item.setEpochDay(ItemDates.toEpochDay(item.getDate()));
+        item.setLocationId(campusLocationDictionary.resolve(item.getLocation()));
+        item.setLocationKeys(
+            CampusLocationDictionary.locationKeys(item.getLocation())
+        );
+        item.setTitleTokens(ItemTextTokenizer.tokenize(item.getTitle()));
+        item.setDescriptionTokens(
+            ItemTextTokenizer.tokenize(item.getDescription())
+        );
+        item.setTitleTokenHashes(ItemTextTokenizer.hashTokens(item.getTitle()));
+        item.setDescriptionTokenHashes(
+            ItemTextTokenizer.hashTokens(item.getDescription())
+        );
+        item.setDescriptionMinHash(
+            DescriptionMinHash.signature(item.getDescriptionTokenHashes())
+        );
+    }
+
+    // Position of an item in the feed: "createdAt|id", base64url-encoded
+    private static String encodeCursor(ItemSummary item) {
+        String createdAt = item.getCreatedAt() != null
+            ? item.getCreatedAt().toString()
+            : "";
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(
+                (createdAt + "|" + item.getId()).getBytes(StandardCharsets.UTF_8)
+            );
+    }
+
+    // Change token: the time it was issued, base64url-encoded
+    private static String encodeToken(LocalDateTime time) {
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(time.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime decodeToken(String token) {
+        try {
+            return LocalDateTime.parse(
+                new String(
+                    Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8
+                )
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid change token");
+        }
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(
+                Base64.getUrlDecoder().decode(cursor),
+                StandardCharsets.UTF_8
+            );
+            String[] position = decoded.split("\\|", 2);
+            if (position.length != 2 || position[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (!position[0].isEmpty()) {
+                LocalDateTime.parse(position[0]);
+            }
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Private copy for write paths, bypassing the cache
+    private Item loadItem(String id) {
+        return itemRepository
+            .findById(id)
+            .orElseThrow(() ->
+                new ResourceNotFoundException("Item not found with id: " + id)
+            );
     }
 
     private String getCurrentUserId() {
@@ -320,15 +1081,91 @@ public class ItemService {
         return user.getId();
     }
 
+    // Same authorities SecurityConfig requires for /admin
+    private boolean isCurrentUserAdmin() {
+        return SecurityContextHolder.getContext()
+            .getAuthentication()
+            .getAuthorities()
+            .stream()
+            .anyMatch(authority ->
+                "ADMIN".equals(authority.getAuthority()) ||
+                "ROLE_ADMIN".equals(authority.getAuthority())
+            );
+    }
+
+    // Scores a slice of the candidates, forking until slices are small
+    // enough, and merges the per-slice heaps on the way back up
+    private class ScoreTask extends RecursiveTask<TopMatchHeap> {
+
+        private static final int SLICE_SIZE = 512;
+
+        private final Item targetItem;
+        private final List<Item> potentialMatches;
+        private final int from;
+        private final int to;
+        private final int limit;
+
+        ScoreTask(Item targetItem, List<Item> potentialMatches, int limit) {
+            this(targetItem, potentialMatches, 0, potentialMatches.size(), limit);
+        }
+
+        private ScoreTask(
+            Item targetItem,
+            List<Item> potentialMatches,
+            int from,
+            int to,
+            int limit
+        ) {
+            this.targetItem = targetItem;
+            this.potentialMatches = potentialMatches;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+        }
+
+        @Override
+        protected TopMatchHeap compute() {
+            if (to - from <= SLICE_SIZE) {
+                return scoreRange(targetItem, potentialMatches, from, to, limit);
+            }
+
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(
+                targetItem,
+                potentialMatches,
+                from,
+                middle,
+                limit
+            );
+            ScoreTask right = new ScoreTask(
+                targetItem,
+                potentialMatches,
+                middle,
+                to,
+                limit
+            );
+            left.fork();
+            TopMatchHeap topMatches = right.compute();
+            topMatches.addAll(left.join());
+            return topMatches;
+        }
+    }
+
     // Helper class for item matching
-    private static class ItemMatch {
+    static class ItemMatch {
 
         private final Item item;
         private final double score;
+        private final double reverseScore;
 
         public ItemMatch(Item item, double score) {
+            this(item, score, score);
+        }
+
+        public ItemMatch(Item item, double score, double reverseScore) {
             this.item = item;
             this.score = score;
+            this.reverseScore = reverseScore;
         }
 
         public Item getItem() {
@@ -338,5 +1175,11 @@ public class ItemService {
         public double getScore() {
             return score;
         }
+
+        // How the matched item scores the target; only differs from the
+        // score under containment similarity
+        public double getReverseScore() {
+            return reverseScore;
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.mitwpu.finditnow.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Turns item titles and descriptions into the normalized tokens stored on
+ * each item and compared by the matcher.
+ *
+ * A token is a run of letters or digits, lowercased, at least
+ * MIN_TOKEN_LENGTH characters long. Tokens are available both as strings
+ * and as 64-bit FNV-1a hashes; the hashes are what the scorer compares.
+ */
+public final class ItemTextTokenizer {
+
+    // Words shorter than this carry no signal for matching ("a", "the", "my")
+    public static final int MIN_TOKEN_LENGTH = 4;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private ItemTextTokenizer() {}
+
+    /**
+     * Returns the tokens of the text deduplicated and sorted.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        TreeSet<String> tokens = new TreeSet<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else {
+                if (token.length() >= MIN_TOKEN_LENGTH) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Returns the hashes of the text's tokens deduplicated and sorted. The
+     * text is scanned in place and no per-token strings are created.
+     */
+    public static long[] hashTokens(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return new long[0];
+        }
+
+        long[] hashes = new long[16];
+        int count = 0;
+        long hash = FNV_OFFSET_BASIS;
+        int tokenLength = 0;
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash ^= Character.toLowerCase(c);
+                hash *= FNV_PRIME;
+                tokenLength++;
+            } else {
+                if (tokenLength >= MIN_TOKEN_LENGTH) {
+                    if (count == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, count * 2);
+                    }
+                    hashes[count++] = hash;
+                }
+                hash = FNV_OFFSET_BASIS;
+                tokenLength = 0;
+            }
+        }
+
+        Arrays.sort(hashes, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || hashes[i] != hashes[unique - 1]) {
+                hashes[unique++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, unique);
+    }
+}
@@ -0,0 +1,195 @@
+package com.mitwpu.finditnow.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last stage of outgoing mail. Messages are queued and a single sender
+ * thread hands them to the mail server in batches, each batch through one
+ * {@link JavaMailSender#send(SimpleMailMessage...)} call, so one SMTP
+ * connection (and one STARTTLS and AUTH exchange) carries many messages.
+ *
+ * A batch is sent once it is full or its first message has waited the
+ * linger time, whichever comes first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailDeliveryQueue {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${notifications.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notifications.mail.linger-ms:200}")
+    private long lingerMs;
+
+    @Value("${notifications.mail.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notifications.mail.submit-timeout-ms:1000}")
+    private long submitTimeoutMs;
+
+    private BlockingQueue<SimpleMailMessage> queue;
+    private Thread sender;
+    private volatile boolean running;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final LongAccumulator maxBatchNanos = new LongAccumulator(
+        Math::max,
+        0
+    );
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        sender = new Thread(this::run, "mail-delivery");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    // Whatever is still queued is sent before the context closes
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        sender.interrupt();
+        sender.join(TimeUnit.SECONDS.toMillis(5));
+
+        List<SimpleMailMessage> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Queues a message for the next batch. Waits at most submit-timeout-ms
+     * for room in the queue, then fails rather than holding the caller.
+     */
+    public void submit(SimpleMailMessage message) {
+        boolean queued;
+        try {
+            queued = queue.offer(message, submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while queueing mail", e);
+        }
+        if (!queued) {
+            failed.increment();
+            throw new MailSendException("Mail queue is full");
+        }
+    }
+
+    /**
+     * Sends one message right away on the caller's thread, for mail the
+     * caller has to know was accepted. Failures are thrown to the caller.
+     */
+    public void sendNow(SimpleMailMessage message) {
+        mailSender.send(message);
+    }
+
+    public Map<String, Long> snapshot() {
+        long batchCount = batches.sum();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", (long) queue.size());
+        stats.put("batches", batchCount);
+        stats.put("sent", sent.sum());
+        stats.put("failed", failed.sum());
+        stats.put(
+            "avgBatchSize",
+            batchCount > 0 ? (sent.sum() + failed.sum()) / batchCount : 0
+        );
+        stats.put(
+            "avgBatchMs",
+            batchCount > 0
+                ? TimeUnit.NANOSECONDS.toMillis(batchNanos.sum() / batchCount)
+                : 0
+        );
+        stats.put(
+            "maxBatchMs",
+            TimeUnit.NANOSECONDS.toMillis(maxBatchNanos.get())
+        );
+        return stats;
+    }
+
+    private void run() {
+        List<SimpleMailMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline =
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0) {
+                        break;
+                    }
+                    SimpleMailMessage next = queue.poll(
+                        remaining,
+                        TimeUnit.NANOSECONDS
+                    );
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down; stop() sends whatever is still queued
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+                return;
+            }
+
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<SimpleMailMessage> batch) {
+        long start = System.nanoTime();
+        try {
+            mailSender.send(batch.toArray(new SimpleMailMessage[0]));
+            sent.add(batch.size());
+        } catch (MailSendException e) {
+            // Messages that did fail are listed; the rest went through
+            int failures = e.getFailedMessages().isEmpty()
+                ? batch.size()
+                : e.getFailedMessages().size();
+            failed.add(failures);
+            sent.add(batch.size() - failures);
+            log.warn("Failed to send {} of {} emails", failures, batch.size(), e);
+        } catch (MailException e) {
+            failed.add(batch.size());
+            log.warn("Failed to send {} emails", batch.size(), e);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        batches.increment();
+        batchNanos.add(elapsed);
+        maxBatchNanos.accumulate(elapsed);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-scores written items and queues the resulting match notifications off
+ * the request thread, so creating or editing an item returns as soon as it
+ * is saved.
+ *
+ * An item written again before its refresh ran is refreshed once, with its
+ * latest fields. When the queue is full the refresh is skipped and counted;
+ * MatchSweeper scores the item later (new items first, since their matches
+ * were never computed), but without notifications.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MatchRefreshQueue {
+
+    // How long an idle worker waits before checking for shutdown
+    private static final long POLL_MS = 500;
+
+    private final MatchService matchService;
+    private final NotificationService notificationService;
+
+    @Value("${matching.refresh.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${matching.refresh.workers:2}")
+    private int workerCount;
+
+    @Value("${matching.refresh.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<String> queue;
+
+    // item id -> latest written version waiting for its refresh
+    private final Map<String, Item> pending = new ConcurrentHashMap<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::run, "match-refresh-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    // Whatever is still queued is refreshed before the context closes, for
+    // at most shutdown-timeout-ms; notifications shut down after this
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        long deadline =
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(remainingMillis(deadline));
+        }
+
+        String itemId;
+        while (remainingMillis(deadline) > 1 && (itemId = queue.poll()) != null) {
+            refresh(itemId);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} match refreshes queued", queue.size());
+        }
+    }
+
+    /** Queues the item's match refresh, replacing one still pending. */
+    public void submit(Item item) {
+        if (pending.put(item.getId(), item) != null) {
+            // Already queued; the worker picks up the newer fields
+            return;
+        }
+        if (queue.offer(item.getId())) {
+            submitted.increment();
+        } else {
+            pending.remove(item.getId());
+            skipped.increment();
+            log.warn("Match refresh queue full, left {} to the sweeper", item.getId());
+        }
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("refreshQueueDepth", (long) queue.size());
+        stats.put("refreshesQueued", submitted.sum());
+        stats.put("refreshesRun", refreshed.sum());
+        stats.put("refreshesSkipped", skipped.sum());
+        stats.put("refreshesFailed", failed.sum());
+        return stats;
+    }
+
+    private void run() {
+        while (running) {
+            String itemId;
+            try {
+                itemId = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (itemId != null) {
+                refresh(itemId);
+            }
+        }
+    }
+
+    private void refresh(String itemId) {
+        Item item = pending.remove(itemId);
+        if (item == null) {
+            return;
+        }
+        try {
+            notificationService.matchesFound(item, matchService.refreshMatches(item));
+            refreshed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Failed to refresh matches for {}", itemId, e);
+        }
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1);
+    }
+}
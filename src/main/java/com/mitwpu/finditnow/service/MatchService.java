@@ -0,0 +1,223 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.Match;
+import com.mitwpu.finditnow.repository.MatchRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the materialized "matches" collection.
+ *
+ * Each item's match with a candidate above the match threshold is stored as
+ * an edge with that direction's score. Containment similarity is
+ * asymmetric, so the reverse edge can have another score or be missing. Reading the matches for
+ * an item is then a single indexed query on (itemId, score), and writes
+ * only re-score the item that changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class MatchService {
+
+    private static final int TOP_MATCHES = 5;
+
+    private final ItemService itemService;
+    private final MatchRepository matchRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ItemCache itemCache;
+
+    // Read-only; items whose matches were never computed are scored by
+    // MatchSweeper and have none until then
+    public List<Item> getMatchingItems(String itemId) {
+        // Throws if the item does not exist
+        itemService.getItemById(itemId);
+        return itemService.getItemsByIds(topCandidateIds(itemId));
+    }
+
+    /**
+     * Re-scores an item against its candidates and replaces all of its
+     * edges. Returns the edges whose top-5 membership changed, which are the
+     * only ones worth notifying about.
+     */
+    public MatchUpdate refreshMatches(Item item) {
+        String itemId = item.getId();
+        // Scored both ways, since containment similarity is asymmetric
+        List<ItemService.ItemMatch> scoredMatches =
+            itemService.scoreMatchesBothWays(item);
+
+        // Edges this item lists, and candidates that list this item; a
+        // direction below the threshold scores below zero
+        Set<String> forwardIds = new HashSet<>();
+        Set<String> reverseIds = new HashSet<>();
+        for (ItemService.ItemMatch match : scoredMatches) {
+            String candidateId = match.getItem().getId();
+            if (match.getScore() > 0) {
+                forwardIds.add(candidateId);
+            }
+            if (match.getReverseScore() > 0) {
+                reverseIds.add(candidateId);
+            }
+        }
+
+        // Top-5 membership before the refresh, for the item and each
+        // candidate that lists it
+        Set<String> listIds = new HashSet<>(reverseIds);
+        listIds.add(itemId);
+        Map<String, List<String>> previousTop = topCandidateIds(listIds);
+
+        // Upsert the new edges first and only then remove the ones that are
+        // gone, so readers never see the item without matches mid-refresh
+        LocalDateTime now = LocalDateTime.now();
+        if (!scoredMatches.isEmpty()) {
+            BulkOperations operations = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED,
+                Match.class
+            );
+            for (ItemService.ItemMatch match : scoredMatches) {
+                String candidateId = match.getItem().getId();
+                if (forwardIds.contains(candidateId)) {
+                    upsertEdge(operations, itemId, candidateId, match.getScore(), now);
+                }
+                if (reverseIds.contains(candidateId)) {
+                    upsertEdge(
+                        operations,
+                        candidateId,
+                        itemId,
+                        match.getReverseScore(),
+                        now
+                    );
+                }
+            }
+            operations.execute();
+        }
+        mongoTemplate.remove(
+            new Query(
+                new Criteria().orOperator(
+                    Criteria.where("itemId").is(itemId).and("candidateId").nin(forwardIds),
+                    Criteria.where("candidateId").is(itemId).and("itemId").nin(reverseIds)
+                )
+            ),
+            Match.class
+        );
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(itemId)),
+            new Update().set("matchesComputedAt", now),
+            Item.class
+        );
+        itemCache.invalidate(itemId);
+
+        Map<String, List<String>> currentTop = topCandidateIds(listIds);
+
+        // Candidates that newly entered this item's top 5
+        List<String> previousItemTop = previousTop.getOrDefault(itemId, List.of());
+        List<String> newMatchIds = currentTop
+            .getOrDefault(itemId, List.of())
+            .stream()
+            .filter(candidateId -> !previousItemTop.contains(candidateId))
+            .collect(Collectors.toList());
+
+        // Candidates whose own top 5 this item newly entered, best match first
+        List<String> newlyMatchedIds = new ArrayList<>();
+        for (ItemService.ItemMatch match : scoredMatches) {
+            String candidateId = match.getItem().getId();
+            if (
+                reverseIds.contains(candidateId) &&
+                !previousTop.getOrDefault(candidateId, List.of()).contains(itemId) &&
+                currentTop.getOrDefault(candidateId, List.of()).contains(itemId)
+            ) {
+                newlyMatchedIds.add(candidateId);
+            }
+        }
+
+        return new MatchUpdate(
+            itemService.getItemsByIds(newMatchIds),
+            itemService.getItemsByIds(newlyMatchedIds)
+        );
+    }
+
+    public void removeMatches(String itemId) {
+        matchRepository.deleteByItemIdOrCandidateId(itemId, itemId);
+    }
+
+    private List<String> topCandidateIds(String itemId) {
+        return matchRepository
+            .findTop5ByItemIdOrderByScoreDesc(itemId)
+            .stream()
+            .limit(TOP_MATCHES)
+            .map(Match::getCandidateId)
+            .collect(Collectors.toList());
+    }
+
+    // Top-5 candidate ids of each of the items, picked per item by Mongo
+    // ($topN, MongoDB 5.2+) so only five edges per item come back however
+    // many it has
+    private Map<String, List<String>> topCandidateIds(Collection<String> itemIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("itemId").in(itemIds)),
+            // Written out, since SelectionOperators.Top wraps a single output
+            // field in an array
+            context ->
+                new Document(
+                    "$group",
+                    new Document("_id", "$itemId").append(
+                        "candidateIds",
+                        new Document(
+                            "$topN",
+                            new Document("n", TOP_MATCHES)
+                                .append("sortBy", new Document("score", -1))
+                                .append("output", "$candidateId")
+                        )
+                    )
+                )
+        );
+
+        Map<String, List<String>> topIds = new HashMap<>();
+        for (Document group : mongoTemplate
+            .aggregate(aggregation, Match.class, Document.class)
+            .getMappedResults()) {
+            topIds.put(
+                group.getString("_id"),
+                group.getList("candidateIds", String.class)
+            );
+        }
+        return topIds;
+    }
+
+    private void upsertEdge(
+        BulkOperations operations,
+        String itemId,
+        String candidateId,
+        double score,
+        LocalDateTime computedAt
+    ) {
+        operations.upsert(
+            new Query(
+                Criteria.where("itemId").is(itemId).and("candidateId").is(candidateId)
+            ),
+            new Update().set("score", score).set("computedAt", computedAt)
+        );
+    }
+
+    /**
+     * Result of a refresh: items that newly entered the refreshed item's top
+     * matches (best first), and existing items whose top matches the
+     * refreshed item newly entered.
+     */
+    public record MatchUpdate(List<Item> newMatches, List<Item> newlyMatchedItems) {}
+}
@@ -0,0 +1,241 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.SweepCheckpoint;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job that periodically re-scores every open lost/found item, so
+ * items posted before their match existed, or edited since, still end up
+ * in the matches collection.
+ *
+ * Each run first scores the items whose matches were never computed (items
+ * written before the matches collection existed), since reads of their
+ * matches stay empty until then, and spends what is left of its budget on
+ * the pass below.
+ *
+ * Items are walked in _id order one page at a time and the last processed
+ * id is checkpointed in Mongo after every page. Each run handles at most
+ * max-items-per-run items and the next run resumes from the checkpoint, so
+ * a pass over a large collection is spread across runs instead of holding
+ * the scheduler thread. Processing is paced to a fixed number of items per
+ * second to keep the sweep from competing with user traffic.
+ *
+ * Only one instance sweeps at a time: a run first takes a lease on the
+ * checkpoint document, renews it with every page and gives it up when it
+ * returns. A lease left behind by a crashed instance expires after lease-ms.
+ */
+@Component
+@RequiredArgsConstructor
+public class MatchSweeper {
+
+    private static final String CHECKPOINT_ID = "match-sweeper";
+    private static final List<String> OPEN_STATUSES = List.of("lost", "found");
+
+    // Identifies this instance as the lease owner
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ItemRepository itemRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MatchService matchService;
+
+    @Value("${matching.sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${matching.sweep.page-size:100}")
+    private int pageSize;
+
+    @Value("${matching.sweep.max-items-per-run:600}")
+    private int maxItemsPerRun;
+
+    @Value("${matching.sweep.max-items-per-second:20}")
+    private int maxItemsPerSecond;
+
+    @Value("${matching.sweep.lease-ms:300000}")
+    private long leaseMs;
+
+    @Scheduled(
+        initialDelayString = "${matching.sweep.initial-delay-ms:60000}",
+        fixedDelayString = "${matching.sweep.interval-ms:60000}"
+    )
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        SweepCheckpoint checkpoint = acquireLease();
+        if (checkpoint == null) {
+            // Another instance is sweeping
+            return;
+        }
+
+        try {
+            sweep(checkpoint);
+        } finally {
+            releaseLease();
+        }
+    }
+
+    private void sweep(SweepCheckpoint checkpoint) {
+        long nanosPerItem = TimeUnit.SECONDS.toNanos(1) / Math.max(maxItemsPerSecond, 1);
+        int processed = scoreUnscoredItems(nanosPerItem);
+        if (processed < 0) {
+            return;
+        }
+        String lastItemId = checkpoint.getLastItemId();
+
+        while (processed < maxItemsPerRun) {
+            PageRequest page = PageRequest.of(
+                0,
+                Math.min(pageSize, maxItemsPerRun - processed)
+            );
+            List<Item> items = lastItemId == null
+                ? itemRepository.findByStatusInOrderByIdAsc(OPEN_STATUSES, page)
+                : itemRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(
+                    OPEN_STATUSES,
+                    lastItemId,
+                    page
+                );
+
+            if (items.isEmpty()) {
+                // End of the collection, the next run starts a new pass
+                saveCheckpoint(
+                    new Update()
+                        .unset("lastItemId")
+                        .inc("passesCompleted", 1)
+                );
+                return;
+            }
+
+            for (Item item : items) {
+                long startedAt = System.nanoTime();
+                matchService.refreshMatches(item);
+                pace(startedAt, nanosPerItem);
+                if (Thread.currentThread().isInterrupted()) {
+                    // Shutting down; resume from the last saved checkpoint
+                    return;
+                }
+            }
+            processed += items.size();
+
+            lastItemId = items.get(items.size() - 1).getId();
+            if (!saveCheckpoint(new Update().set("lastItemId", lastItemId))) {
+                // The lease expired and another instance took over
+                return;
+            }
+        }
+    }
+
+    // Scores items that have never been scored, up to the run's budget.
+    // Returns how many were scored, or -1 if the run should stop.
+    private int scoreUnscoredItems(long nanosPerItem) {
+        int processed = 0;
+        while (processed < maxItemsPerRun) {
+            List<Item> items = itemRepository.findByStatusInAndMatchesComputedAtIsNull(
+                OPEN_STATUSES,
+                PageRequest.of(0, Math.min(pageSize, maxItemsPerRun - processed))
+            );
+            if (items.isEmpty()) {
+                break;
+            }
+
+            for (Item item : items) {
+                long startedAt = System.nanoTime();
+                // Sets matchesComputedAt, so the next page moves on
+                matchService.refreshMatches(item);
+                pace(startedAt, nanosPerItem);
+                if (Thread.currentThread().isInterrupted()) {
+                    return -1;
+                }
+            }
+            processed += items.size();
+
+            // Renews the lease
+            if (!saveCheckpoint(new Update())) {
+                return -1;
+            }
+        }
+        return processed;
+    }
+
+    // Takes the lease if it is free, expired or already ours, creating the
+    // checkpoint on the first run; null if another instance holds it
+    private SweepCheckpoint acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        Query free = new Query(
+            Criteria.where("_id")
+                .is(CHECKPOINT_ID)
+                .orOperator(
+                    Criteria.where("leaseExpiresAt").is(null),
+                    Criteria.where("leaseExpiresAt").lt(now),
+                    Criteria.where("leaseOwner").is(owner)
+                )
+        );
+        try {
+            return mongoTemplate.findAndModify(
+                free,
+                new Update()
+                    .set("leaseOwner", owner)
+                    .set("leaseExpiresAt", now.plus(Duration.ofMillis(leaseMs))),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                SweepCheckpoint.class
+            );
+        } catch (DuplicateKeyException e) {
+            // The checkpoint exists and is leased, so the upsert collided
+            return null;
+        }
+    }
+
+    // Saves progress and renews the lease; false if the lease was lost
+    private boolean saveCheckpoint(Update update) {
+        LocalDateTime now = LocalDateTime.now();
+        update
+            .set("updatedAt", now)
+            .set("leaseExpiresAt", now.plus(Duration.ofMillis(leaseMs)));
+        return mongoTemplate
+            .updateFirst(ownLease(), update, SweepCheckpoint.class)
+            .getMatchedCount() > 0;
+    }
+
+    private void releaseLease() {
+        mongoTemplate.updateFirst(
+            ownLease(),
+            new Update().unset("leaseOwner").unset("leaseExpiresAt"),
+            SweepCheckpoint.class
+        );
+    }
+
+    private Query ownLease() {
+        return new Query(
+            Criteria.where("_id").is(CHECKPOINT_ID).and("leaseOwner").is(owner)
+        );
+    }
+
+    // Sleeps for whatever is left of the item's time slot
+    private void pace(long startedAt, long nanosPerItem) {
+        long remaining = nanosPerItem - (System.nanoTime() - startedAt);
+        if (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mitwpu.finditnow.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for the staged match scorer: how many candidates were scored and
+ * after which stage the rest were pruned.
+ */
+@Component
+public class MatchingStats {
+
+    private final LongAdder candidatesScored = new LongAdder();
+    private final LongAdder prunedAfterLocation = new LongAdder();
+    private final LongAdder prunedAfterDate = new LongAdder();
+    private final LongAdder prunedAfterTitle = new LongAdder();
+    private final LongAdder fullyScored = new LongAdder();
+
+    void recordCandidate() {
+        candidatesScored.increment();
+    }
+
+    void recordPrunedAfterLocation() {
+        prunedAfterLocation.increment();
+    }
+
+    void recordPrunedAfterDate() {
+        prunedAfterDate.increment();
+    }
+
+    void recordPrunedAfterTitle() {
+        prunedAfterTitle.increment();
+    }
+
+    void recordFullyScored() {
+        fullyScored.increment();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("candidatesScored", candidatesScored.sum());
+        stats.put("prunedAfterLocation", prunedAfterLocation.sum());
+        stats.put("prunedAfterDate", prunedAfterDate.sum());
+        stats.put("prunedAfterTitle", prunedAfterTitle.sum());
+        stats.put("fullyScored", fullyScored.sum());
+        return stats;
+    }
+}
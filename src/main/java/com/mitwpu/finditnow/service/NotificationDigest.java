@@ -0,0 +1,117 @@
+package com.mitwpu.finditnow.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffers notifications for users who opted into the "digest" preference
+ * and sends each user one combined email per interval, or sooner once they
+ * have max-events pending.
+ *
+ * Within a buffer, events for the same type and item replace each other, so
+ * an item that keeps gaining matches is reported once with its latest match.
+ *
+ * Buffers are held in memory only. They are sent on a normal shutdown, but
+ * if the process dies, everything buffered since the last flush is lost:
+ * at most interval-ms of updates, and never more than max-events per user.
+ * Each instance buffers the events its own workers delivered, so with
+ * several instances a user can get one digest from each. The flush runs on
+ * the shared scheduler pool (spring.task.scheduling.pool.size), so a long
+ * match sweep does not hold it up.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationDigest {
+
+    private final EmailService emailService;
+
+    @Value("${notifications.digest.max-events:10}")
+    private int maxEvents;
+
+    // recipient id -> events waiting for the next digest
+    private final Map<String, PendingDigest> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder digestsSent = new LongAdder();
+
+    public void add(String email, NotificationEvent event) {
+        PendingDigest[] full = new PendingDigest[1];
+        pending.compute(event.recipientId(), (recipientId, digest) -> {
+            if (digest == null) {
+                digest = new PendingDigest();
+            }
+            digest.email = email;
+            if (digest.events.put(key(event), event) != null) {
+                coalesced.increment();
+            }
+            if (digest.events.size() >= maxEvents) {
+                full[0] = digest;
+                return null;
+            }
+            return digest;
+        });
+        buffered.increment();
+
+        if (full[0] != null) {
+            send(full[0]);
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${notifications.digest.interval-ms:3600000}",
+        fixedDelayString = "${notifications.digest.interval-ms:3600000}"
+    )
+    public void flush() {
+        for (String recipientId : pending.keySet()) {
+            PendingDigest digest = pending.remove(recipientId);
+            if (digest != null) {
+                send(digest);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("digestUsers", (long) pending.size());
+        stats.put("digestBuffered", buffered.sum());
+        stats.put("digestCoalesced", coalesced.sum());
+        stats.put("digestsSent", digestsSent.sum());
+        return stats;
+    }
+
+    private void send(PendingDigest digest) {
+        List<String> lines = new ArrayList<>(digest.events.size());
+        for (NotificationEvent event : digest.events.values()) {
+            lines.add(event.summary());
+        }
+        emailService.sendDigestNotification(digest.email, lines);
+        digestsSent.increment();
+    }
+
+    private static String key(NotificationEvent event) {
+        return event.type().name() + ":" + event.itemId();
+    }
+
+    // Only touched inside pending.compute, or after being removed from it
+    private static class PendingDigest {
+
+        private String email;
+        private final Map<String, NotificationEvent> events =
+            new LinkedHashMap<>();
+    }
+}
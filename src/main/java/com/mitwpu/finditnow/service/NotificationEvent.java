@@ -0,0 +1,49 @@
+package com.mitwpu.finditnow.service;
+
+/**
+ * One email to one user, queued by NotificationService. Everything needed
+ * to write the email is captured when the event is queued; the recipient's
+ * address and preferences are only looked up when it is delivered.
+ */
+record NotificationEvent(
+    Type type,
+    String recipientId,
+    String itemId,
+    String itemTitle,
+    // Matched item title, claimant name or claim status, depending on type
+    String detail,
+    long enqueuedAtNanos
+) {
+    // One line of a digest email
+    String summary() {
+        return switch (type) {
+            case MATCH_FOUND -> "Potential match for \"" + itemTitle +
+                "\": \"" + detail + "\"";
+            case CLAIM_RECEIVED -> "New claim on \"" + itemTitle + "\" by " +
+                detail;
+            case CLAIM_UPDATED -> "Your claim for \"" + itemTitle +
+                "\" has been " + detail.toLowerCase();
+            case ITEM_RECOVERED -> "\"" + itemTitle +
+                "\" has been marked as recovered";
+        };
+    }
+
+    enum Type {
+        MATCH_FOUND("matchFound", false),
+        CLAIM_RECEIVED("claimReceived", false),
+        CLAIM_UPDATED("claimUpdated", true),
+        ITEM_RECOVERED("itemRecovered", true);
+
+        // Key in the user's notification preferences
+        final String preference;
+
+        // Sent from the caller's thread rather than dropped when the queue
+        // is full; these report a decision the user is waiting on
+        final boolean critical;
+
+        Type(String preference, boolean critical) {
+            this.preference = preference;
+            this.critical = critical;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mitwpu.finditnow.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mitwpu.finditnow.model.NotificationPreference;
+import com.mitwpu.finditnow.repository.NotificationPreferenceRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Users' email notification preferences, stored in Mongo as one bit per key
+ * with a bounded local cache in front.
+ *
+ * Users without a stored document get the defaults, which are cached like
+ * any other value. Cached entries expire after a short time so a change
+ * made through another instance is picked up without a restart.
+ */
+@Service
+public class NotificationPreferenceService {
+
+    // Bit i of the stored flags is KEYS.get(i); only append to this list
+    static final List<String> KEYS = List.of(
+        "claimReceived",
+        "claimUpdated",
+        "matchFound",
+        "itemRecovered",
+        "digest" // opt-in: batch the above into one periodic email
+    );
+
+    // Everything but the digest
+    static final int DEFAULT_FLAGS = 0b01111;
+
+    // Read-only map for every possible flags value, so reads never build one
+    @SuppressWarnings("unchecked")
+    private static final Map<String, Boolean>[] MAPS = new Map[1 << KEYS.size()];
+
+    static {
+        for (int flags = 0; flags < MAPS.length; flags++) {
+            Map<String, Boolean> map = new LinkedHashMap<>();
+            for (int i = 0; i < KEYS.size(); i++) {
+                map.put(KEYS.get(i), (flags & (1 << i)) != 0);
+            }
+            MAPS[flags] = Collections.unmodifiableMap(map);
+        }
+    }
+
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final Cache<String, Integer> cache;
+
+    // Held so lookups do not allocate a new lambda
+    private final Function<String, Integer> loader = this::load;
+
+    public NotificationPreferenceService(
+        NotificationPreferenceRepository preferenceRepository,
+        @Value("${notifications.preferences.cache-size:10000}") long cacheSize,
+        @Value("${notifications.preferences.cache-ttl-ms:300000}") long cacheTtlMs
+    ) {
+        this.preferenceRepository = preferenceRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+            .build();
+    }
+
+    public int getFlags(String userId) {
+        return cache.get(userId, loader);
+    }
+
+    /** Flags for many users at once, loading any uncached ones in one query. */
+    public Map<String, Integer> getFlags(Collection<String> userIds) {
+        return cache.getAll(userIds, this::loadAll);
+    }
+
+    public Map<String, Boolean> getPreferences(String userId) {
+        return MAPS[getFlags(userId)];
+    }
+
+    /**
+     * Replaces a user's preferences. Keys missing from the map keep their
+     * default; unknown keys are ignored.
+     */
+    public Map<String, Boolean> setPreferences(
+        String userId,
+        Map<String, Boolean> preferences
+    ) {
+        int flags = 0;
+        for (int i = 0; i < KEYS.size(); i++) {
+            Boolean enabled = preferences.get(KEYS.get(i));
+            if (
+                enabled != null ? enabled : (DEFAULT_FLAGS & (1 << i)) != 0
+            ) {
+                flags |= 1 << i;
+            }
+        }
+
+        preferenceRepository.save(
+            NotificationPreference.builder()
+                .userId(userId)
+                .flags(flags)
+                .updatedAt(LocalDateTime.now())
+                .build()
+        );
+        cache.put(userId, flags);
+        return MAPS[flags];
+    }
+
+    public static boolean isEnabled(int flags, String key) {
+        int bit = KEYS.indexOf(key);
+        return bit >= 0 && (flags & (1 << bit)) != 0;
+    }
+
+    private Integer load(String userId) {
+        return preferenceRepository
+            .findById(userId)
+            .map(preference -> preference.getFlags() & (MAPS.length - 1))
+            .orElse(DEFAULT_FLAGS);
+    }
+
+    private Map<String, Integer> loadAll(Set<? extends String> userIds) {
+        Map<String, Integer> flags = new HashMap<>();
+        for (NotificationPreference preference : preferenceRepository.findAllById(
+            List.copyOf(userIds)
+        )) {
+            flags.put(
+                preference.getUserId(),
+                preference.getFlags() & (MAPS.length - 1)
+            );
+        }
+        for (String userId : userIds) {
+            flags.putIfAbsent(userId, DEFAULT_FLAGS);
+        }
+        return flags;
+    }
+}
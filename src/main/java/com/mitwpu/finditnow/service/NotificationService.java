@@ -0,0 +1,398 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.Claim;
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.User;
+import com.mitwpu.finditnow.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends user notifications off the request thread.
+ *
+ * Request handlers turn what happened into NotificationEvents on a bounded
+ * queue and return; a small pool of worker threads (virtual threads when the
+ * JVM has them) looks up each recipient, checks their preferences and
+ * writes the email, which MailDeliveryQueue then sends in batches. Users
+ * with the digest preference get theirs through NotificationDigest. When the
+ * queue is full, claim decisions and recoveries are delivered on the
+ * caller's thread instead; other events are dropped, logged and counted by
+ * type rather than blocking the request. On shutdown the workers finish
+ * their batches and whatever is still queued is delivered, for at most
+ * notifications.shutdown-timeout-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    // Events a worker takes off the queue and resolves together
+    private static final int DELIVERY_BATCH_SIZE = 50;
+
+    // How long an idle worker waits before checking for shutdown
+    private static final long POLL_MS = 500;
+
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final ItemCache itemCache;
+    private final NotificationDigest notificationDigest;
+    private final NotificationPreferenceService notificationPreferenceService;
+
+    @Value("${notifications.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${notifications.workers:4}")
+    private int workerCount;
+
+    @Value("${notifications.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<NotificationEvent> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final Map<NotificationEvent.Type, LongAdder> dropped =
+        new EnumMap<>(NotificationEvent.Type.class);
+    private final LongAdder deliveredInline = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder digested = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        for (NotificationEvent.Type type : NotificationEvent.Type.values()) {
+            dropped.put(type, new LongAdder());
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        ThreadFactory threadFactory = workerThreadFactory();
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::drain);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        long deadline =
+            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(remainingMillis(deadline));
+        }
+
+        // Deliver what the workers left behind, in batches like they do
+        List<NotificationEvent> batch = new ArrayList<>(DELIVERY_BATCH_SIZE);
+        while (
+            System.nanoTime() < deadline &&
+            queue.drainTo(batch, DELIVERY_BATCH_SIZE) > 0
+        ) {
+            deliverBatch(batch);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} notifications queued", queue.size());
+        }
+    }
+
+    /**
+     * Tells the item's owner about its best new match, and the owners of
+     * items that newly count this item among their top matches.
+     */
+    public void matchesFound(Item item, MatchService.MatchUpdate matchUpdate) {
+        if (!matchUpdate.newMatches().isEmpty()) {
+            Item topMatch = matchUpdate.newMatches().get(0);
+            enqueue(
+                NotificationEvent.Type.MATCH_FOUND,
+                item.getUserId(),
+                item.getId(),
+                item.getTitle(),
+                topMatch.getTitle()
+            );
+        }
+
+        for (Item matchedItem : matchUpdate.newlyMatchedItems()) {
+            enqueue(
+                NotificationEvent.Type.MATCH_FOUND,
+                matchedItem.getUserId(),
+                matchedItem.getId(),
+                matchedItem.getTitle(),
+                item.getTitle()
+            );
+        }
+    }
+
+    public void itemRecovered(Item item) {
+        enqueue(
+            NotificationEvent.Type.ITEM_RECOVERED,
+            item.getUserId(),
+            item.getId(),
+            item.getTitle(),
+            null
+        );
+    }
+
+    // Called by the claimant, so their name comes from the current principal
+    public void claimReceived(Claim claim) {
+        Item item = itemCache.get(claim.getItemId());
+        enqueue(
+            NotificationEvent.Type.CLAIM_RECEIVED,
+            item.getUserId(),
+            item.getId(),
+            item.getTitle(),
+            getCurrentUser().getName()
+        );
+    }
+
+    public void claimUpdated(Claim claim, String status) {
+        Item item = itemCache.get(claim.getItemId());
+        enqueue(
+            NotificationEvent.Type.CLAIM_UPDATED,
+            claim.getClaimantId(),
+            item.getId(),
+            item.getTitle(),
+            status
+        );
+
+        // An approved claim also means the owner gets their item back
+        if ("approved".equalsIgnoreCase(status)) {
+            itemRecovered(item);
+        }
+    }
+
+    public Map<String, Long> snapshot() {
+        long delivered =
+            sent.sum() + skipped.sum() + digested.sum() + failed.sum();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", (long) queue.size());
+        stats.put("queueCapacity", (long) queueCapacity);
+        stats.put("enqueued", enqueued.sum());
+        long droppedTotal = 0;
+        for (Map.Entry<NotificationEvent.Type, LongAdder> entry : dropped.entrySet()) {
+            String preference = entry.getKey().preference;
+            long count = entry.getValue().sum();
+            stats.put(
+                "dropped" +
+                Character.toUpperCase(preference.charAt(0)) +
+                preference.substring(1),
+                count
+            );
+            droppedTotal += count;
+        }
+        stats.put("dropped", droppedTotal);
+        stats.put("deliveredInline", deliveredInline.sum());
+        stats.put("sent", sent.sum());
+        stats.put("skipped", skipped.sum());
+        stats.put("digested", digested.sum());
+        stats.put("failed", failed.sum());
+        stats.put(
+            "avgQueueWaitMs",
+            delivered > 0
+                ? TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.sum() / delivered)
+                : 0
+        );
+        stats.putAll(notificationDigest.snapshot());
+        return stats;
+    }
+
+    private void enqueue(
+        NotificationEvent.Type type,
+        String recipientId,
+        String itemId,
+        String itemTitle,
+        String detail
+    ) {
+        if (recipientId == null) {
+            return;
+        }
+
+        NotificationEvent event = new NotificationEvent(
+            type,
+            recipientId,
+            itemId,
+            itemTitle,
+            detail,
+            System.nanoTime()
+        );
+        if (queue.offer(event)) {
+            enqueued.increment();
+        } else if (type.critical) {
+            // Slower for this request, but the user hears about the decision
+            log.warn("Notification queue full, sending {} for {} inline", type, recipientId);
+            deliveredInline.increment();
+            try {
+                deliver(List.of(event));
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Failed to look up notification recipient {}", recipientId, e);
+            }
+        } else {
+            dropped.get(type).increment();
+            log.warn("Notification queue full, dropped {} for {}", type, recipientId);
+        }
+    }
+
+    private void drain() {
+        List<NotificationEvent> batch = new ArrayList<>(DELIVERY_BATCH_SIZE);
+        while (running) {
+            NotificationEvent event;
+            try {
+                event = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (event == null) {
+                continue;
+            }
+            batch.add(event);
+            queue.drainTo(batch, DELIVERY_BATCH_SIZE - 1);
+            deliverBatch(batch);
+        }
+    }
+
+    private void deliverBatch(List<NotificationEvent> batch) {
+        long now = System.nanoTime();
+        for (NotificationEvent event : batch) {
+            queueWaitNanos.add(now - event.enqueuedAtNanos());
+        }
+        try {
+            deliver(batch);
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.warn("Failed to look up {} notification recipients", batch.size(), e);
+        }
+        batch.clear();
+    }
+
+    // Recipients and their preferences are fetched once for the whole batch
+    private void deliver(List<NotificationEvent> events) {
+        Set<String> recipientIds = new HashSet<>();
+        for (NotificationEvent event : events) {
+            recipientIds.add(event.recipientId());
+        }
+        Map<String, User> recipients = new HashMap<>();
+        for (User user : userRepository.findAllById(recipientIds)) {
+            recipients.put(user.getId(), user);
+        }
+        Map<String, Integer> flags = notificationPreferenceService.getFlags(
+            recipientIds
+        );
+
+        for (NotificationEvent event : events) {
+            try {
+                deliver(
+                    event,
+                    recipients.get(event.recipientId()),
+                    flags.get(event.recipientId())
+                );
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn(
+                    "Failed to send {} to {}",
+                    event.type(),
+                    event.recipientId(),
+                    e
+                );
+            }
+        }
+    }
+
+    private void deliver(NotificationEvent event, User recipient, int flags) {
+        if (
+            recipient == null ||
+            !NotificationPreferenceService.isEnabled(
+                flags,
+                event.type().preference
+            )
+        ) {
+            skipped.increment();
+            return;
+        }
+        if (NotificationPreferenceService.isEnabled(flags, "digest")) {
+            notificationDigest.add(recipient.getEmail(), event);
+            digested.increment();
+            return;
+        }
+
+        switch (event.type()) {
+            case MATCH_FOUND -> emailService.sendMatchFoundNotification(
+                recipient.getEmail(),
+                event.itemTitle(),
+                event.detail()
+            );
+            case CLAIM_RECEIVED -> emailService.sendClaimReceivedNotification(
+                recipient.getEmail(),
+                event.itemTitle(),
+                event.detail()
+            );
+            case CLAIM_UPDATED -> emailService.sendClaimStatusNotification(
+                recipient.getEmail(),
+                event.itemTitle(),
+                event.detail()
+            );
+            case ITEM_RECOVERED -> emailService.sendItemRecoveredNotification(
+                recipient.getEmail(),
+                event.itemTitle()
+            );
+        }
+        sent.increment();
+    }
+
+    // Virtual threads on Java 21+, looked up reflectively so the app still
+    // runs on 17; daemon platform threads otherwise
+    private static ThreadFactory workerThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType
+                .getMethod("name", String.class, long.class)
+                .invoke(builder, "notification-", 0L);
+            return (ThreadFactory) builderType
+                .getMethod("factory")
+                .invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(
+                    runnable,
+                    "notification-" + count.getAndIncrement()
+                );
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1);
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext()
+            .getAuthentication();
+        return (User) authentication.getPrincipal();
+    }
+}
@@ -0,0 +1,94 @@
+package com.mitwpu.finditnow.service;
+
+import com.mitwpu.finditnow.model.EmailOtp;
+import com.mitwpu.finditnow.repository.EmailOtpRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Email verification codes, kept in Mongo so any instance can verify a code
+ * another one sent, and so unverified codes expire instead of piling up.
+ */
+@Service
+@RequiredArgsConstructor
+public class OtpService {
+
+    // How long a code can be used; matches the TTL on EmailOtp
+    public static final Duration OTP_TTL = Duration.ofMinutes(10);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final EmailOtpRepository emailOtpRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${auth.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    /** Creates a new 6-digit code for the address, replacing any earlier one. */
+    public String issue(String email) {
+        String code = String.valueOf(100000 + RANDOM.nextInt(900000));
+        emailOtpRepository.save(
+            EmailOtp.builder()
+                .email(email)
+                .code(code)
+                .attempts(0)
+                .createdAt(LocalDateTime.now())
+                .build()
+        );
+        return code;
+    }
+
+    /**
+     * Checks a code and consumes it if it matches. Every check counts as an
+     * attempt, and a code stops verifying after max-attempts checks.
+     */
+    public boolean verify(String email, String code) {
+        if (email == null || code == null) {
+            return false;
+        }
+
+        // Counting the attempt and reading the code is one atomic update, so
+        // concurrent guesses on different instances share the same budget.
+        // The TTL monitor only runs once a minute, so expiry is checked here.
+        EmailOtp otp = mongoTemplate.findAndModify(
+            new Query(
+                Criteria.where("_id")
+                    .is(email)
+                    .and("attempts")
+                    .lt(maxAttempts)
+                    .and("createdAt")
+                    .gt(LocalDateTime.now().minus(OTP_TTL))
+            ),
+            new Update().inc("attempts", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            EmailOtp.class
+        );
+        if (
+            otp == null ||
+            !MessageDigest.isEqual(
+                otp.getCode().getBytes(StandardCharsets.UTF_8),
+                code.getBytes(StandardCharsets.UTF_8)
+            )
+        ) {
+            return false;
+        }
+
+        // Only one verification can remove the code, so it is used once. A
+        // newer code sent in the meantime is left alone.
+        Query current = new Query(
+            Criteria.where("_id").is(email).and("code").is(otp.getCode())
+        );
+        return mongoTemplate.remove(current, EmailOtp.class).getDeletedCount() > 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mitwpu.finditnow.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the highest-scoring matches seen so far in a bounded min-heap, so
+ * selecting the top K of N candidates costs O(N log K) and holds at most K
+ * entries instead of collecting and sorting every candidate.
+ */
+final class TopMatchHeap {
+
+    private final int capacity;
+    private final PriorityQueue<ItemService.ItemMatch> heap;
+
+    TopMatchHeap(int capacity) {
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(
+            Math.min(capacity, 16) + 1,
+            Comparator.comparingDouble(ItemService.ItemMatch::getScore)
+        );
+    }
+
+    void offer(ItemService.ItemMatch match) {
+        if (heap.size() < capacity) {
+            heap.add(match);
+        } else if (match.getScore() > heap.peek().getScore()) {
+            heap.poll();
+            heap.add(match);
+        }
+    }
+
+    /**
+     * Score a new match has to beat to be kept, or negative infinity while
+     * the heap still has room.
+     */
+    double minScoreToEnter() {
+        return heap.size() < capacity
+            ? Double.NEGATIVE_INFINITY
+            : heap.peek().getScore();
+    }
+
+    void addAll(TopMatchHeap other) {
+        for (ItemService.ItemMatch match : other.heap) {
+            offer(match);
+        }
+    }
+
+    /** Matches ordered from highest to lowest score. */
+    List<ItemService.ItemMatch> toSortedList() {
+        List<ItemService.ItemMatch> matches = new ArrayList<>(heap);
+        matches.sort(
+            Comparator.comparingDouble(ItemService.ItemMatch::getScore).reversed()
+        );
+        return matches;
+    }
+}
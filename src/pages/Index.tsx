@@ -8,7 +8,7 @@ import { Button } from "@/components/ui/button";
 import { SearchIcon, PlusIcon } from "lucide-react";
 
 const Index: React.FC = () => {
-  const { items } = useItems();
+  const { items, itemQuery, fetchItems } = useItems();
   const { user } = useAuth();
   
   // Take only the most recent 8 items
@@ -77,8 +77,12 @@ const Index: React.FC = () => {
           </Link>
         </div>
         
-        {recentItems.length > 0 ? (
-          <ItemGrid items={recentItems} />
+        {recentItems.length > 0 || Object.keys(itemQuery).length > 0 ? (
+          <ItemGrid
+            items={recentItems}
+            query={itemQuery}
+            onQueryChange={fetchItems}
+          />
         ) : (
           <div className="text-center py-12 border border-dashed rounded-lg">
             <h3 className="text-xl font-medium mb-2">No Items Yet</h3>
@@ -7,7 +7,7 @@ import { format } from "date-fns";
 import ClaimForm from "@/components/claims/ClaimForm";
 import ClaimItem from "@/components/claims/ClaimItem";
 import CommentList from "@/components/comments/CommentList";
-import { Comment, ItemStatus } from "@/types/item";
+import { Comment, Item, ItemStatus } from "@/types/item";
 import { CATEGORIES, LOCATIONS } from "@/lib/constants";
 import { commentsApi, itemsApi } from "@/services/api";
 import ImageModal from "@/components/ui/image-modal";
@@ -52,6 +52,9 @@ const ItemDetail: React.FC = () => {
   const [isLoadingComments, setIsLoadingComments] = useState(false);
   const [isImageModalOpen, setIsImageModalOpen] = useState(false);
   const [selectedImage, setSelectedImage] = useState("");
+  // Lists only hold item summaries, so the full item is fetched here
+  const [fetchedItem, setFetchedItem] = useState<Item | undefined>();
+  const [isLoadingItem, setIsLoadingItem] = useState(true);
 
   useEffect(() => {
     if (id) {
@@ -59,6 +62,17 @@ const ItemDetail: React.FC = () => {
     }
   }, [id]);
 
+  useEffect(() => {
+    if (!id) return;
+
+    setIsLoadingItem(true);
+    itemsApi
+      .getItem(id)
+      .then(setFetchedItem)
+      .catch((error) => console.error("Error fetching item:", error))
+      .finally(() => setIsLoadingItem(false));
+  }, [id]);
+
   const fetchComments = async () => {
     if (!id) return;
 
@@ -83,7 +97,13 @@ const ItemDetail: React.FC = () => {
     return null;
   }
 
-  const item = getItem(id);
+  // Later edits made through the context are merged over the fetched item
+  const item =
+    fetchedItem?.id === id ? { ...fetchedItem, ...getItem(id) } : undefined;
+
+  if (!item && isLoadingItem) {
+    return <div className="text-center py-12">Loading...</div>;
+  }
 
   if (!item) {
     return (
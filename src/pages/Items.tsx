@@ -8,7 +8,8 @@ import { Button } from "@/components/ui/button";
 import { PlusIcon } from "lucide-react";
 
 const Items: React.FC = () => {
-  const { items } = useItems();
+  const { items, itemQuery, fetchItems, hasMoreItems, fetchMoreItems, loading } =
+    useItems();
   const { user } = useAuth();
   
   return (
@@ -29,7 +30,15 @@ const Items: React.FC = () => {
         )}
       </div>
       
-      <ItemGrid items={items} />
+      <ItemGrid items={items} query={itemQuery} onQueryChange={fetchItems} />
+
+      {hasMoreItems && (
+        <div className="flex justify-center mt-8">
+          <Button variant="outline" onClick={fetchMoreItems} disabled={loading}>
+            {loading ? "Loading..." : "Load more"}
+          </Button>
+        </div>
+      )}
     </div>
   );
 };
@@ -1,6 +1,15 @@
 import axios from "axios";
 import { LoginCredentials, RegisterCredentials, User } from "@/types/auth";
-import { Item, Claim, Comment, Report } from "@/types/item";
+import {
+  Item,
+  ItemChanges,
+  ItemPage,
+  ItemQuery,
+  ItemSummary,
+  Claim,
+  Comment,
+  Report,
+} from "@/types/item";
 import { Analytics } from "@/types/admin";
 
 // Configure the base URL for your Spring Boot API
@@ -60,8 +69,13 @@ export const authApi = {
 
 // Items API endpoints
 export const itemsApi = {
-  getItems: async (): Promise<Item[]> => {
-    const response = await api.get("/items");
+  getItems: async (query: ItemQuery = {}): Promise<ItemPage> => {
+    const response = await api.get("/items", { params: query });
+    return response.data;
+  },
+
+  getItemChanges: async (since?: string): Promise<ItemChanges> => {
+    const response = await api.get("/items/changes", { params: { since } });
     return response.data;
   },
 
@@ -86,7 +100,7 @@ export const itemsApi = {
     await api.delete(`/items/${id}`);
   },
 
-  getUserItems: async (): Promise<Item[]> => {
+  getUserItems: async (): Promise<ItemSummary[]> => {
     const response = await api.get("/items/user");
     return response.data;
   },
@@ -181,7 +195,7 @@ export const uploadApi = {
 // Admin API endpoints
 export const adminApi = {
   // Items management
-  getAllItems: async (): Promise<Item[]> => {
+  getAllItems: async (): Promise<ItemSummary[]> => {
     const response = await api.get("/admin/items");
     return response.data;
   },
@@ -0,0 +1,70 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mitwpu.finditnow.model.Item;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CorpusStatisticsTest {
+
+    @Test
+    void tokenCountsAgreeWithAMapThroughGrowthAndRemoval() {
+        CorpusStatistics.TokenCounts counts = new CorpusStatistics.TokenCounts();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range, so keys are removed and come back; 0 included
+            long token = random.nextInt(20_000) - 10_000L;
+            if (random.nextInt(3) == 0) {
+                counts.decrement(token);
+                expected.computeIfPresent(token, (key, count) ->
+                    count > 1 ? count - 1 : null
+                );
+            } else {
+                counts.increment(token);
+                expected.merge(token, 1, Integer::sum);
+            }
+        }
+
+        for (long token = -10_000; token < 10_000; token++) {
+            assertThat(counts.get(token))
+                .as("count of %d", token)
+                .isEqualTo(expected.getOrDefault(token, 0));
+        }
+        assertThat(counts.get(Long.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void idfFollowsItemsAddedAndRemoved() {
+        CorpusStatistics statistics = new CorpusStatistics(null);
+        statistics.index(item("1", "black leather wallet"));
+        statistics.index(item("2", "black phone"));
+        statistics.index(item("3", "blue bottle"));
+
+        CorpusStatistics.CategoryFrequencies frequencies =
+            statistics.frequencies("accessories");
+        long black = ItemTextTokenizer.hashTokens("black")[0];
+        long wallet = ItemTextTokenizer.hashTokens("wallet")[0];
+        assertThat(frequencies.idf(black)).isEqualTo(Math.log(4.0 / 3.0) + 1.0);
+        assertThat(frequencies.idf(wallet)).isEqualTo(Math.log(4.0 / 2.0) + 1.0);
+
+        // Re-indexing replaces the earlier counts
+        statistics.index(item("2", "silver phone"));
+        statistics.remove("3");
+        assertThat(frequencies.idf(black)).isEqualTo(Math.log(3.0 / 2.0) + 1.0);
+        assertThat(statistics.frequencies("unknown").idf(black)).isEqualTo(1.0);
+    }
+
+    private static Item item(String id, String title) {
+        return Item.builder()
+            .id(id)
+            .category("accessories")
+            .title(title)
+            .description("")
+            .build();
+    }
+}
@@ -0,0 +1,230 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.ItemTombstone;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import com.mitwpu.finditnow.repository.ItemTombstoneRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class ItemMatchIndexTest {
+
+    private static final int PAIRS = 500;
+    private static final int DESCRIPTION_WORDS = 10;
+
+    private final Random random = new Random(7);
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemTombstoneRepository itemTombstoneRepository = mock(
+        ItemTombstoneRepository.class
+    );
+
+    @Test
+    void findsEveryPairSharingARareDescriptionWord() {
+        // One word of ten kept: Jaccard similarity 1/19, far below what the
+        // bands find, but the shared word is rare in the bucket
+        assertThat(recall(10, 1, this::randomWord)).isEqualTo(1.0);
+    }
+
+    // Pairs whose shared words are all used by most of the bucket are only
+    // found through the bands, with probability 1 - (1 - J^2)^16
+
+    @Test
+    void bandsFindQuarterSimilarCommonWordDescriptionsAboutTwoThirdsOfTheTime() {
+        // 4 of 16 words shared: J = 0.25, expected recall 0.64
+        assertThat(recall(10, 4, this::commonWord)).isCloseTo(0.64, within(0.06));
+    }
+
+    @Test
+    void bandsFindThirdSimilarCommonWordDescriptionsMostOfTheTime() {
+        // 5 of 15 words shared: J = 1/3, expected recall 0.85
+        assertThat(recall(10, 5, this::commonWord)).isCloseTo(0.85, within(0.05));
+    }
+
+    @Test
+    void bandsFindHalfSimilarCommonWordDescriptions() {
+        // 6 of 12 words shared: J = 0.5, expected recall 0.99
+        assertThat(recall(9, 6, this::commonWord)).isGreaterThanOrEqualTo(0.97);
+    }
+
+    @Test
+    void commonDescriptionWordsDoNotPullInTheBucket() {
+        // Every found item shares "common0" with the target and nothing else
+        List<Item> found = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            List<String> words = randomWords(9, this::randomWord);
+            words.add("common0");
+            found.add(item("found-" + i, "found", words));
+        }
+        ItemMatchIndex index = index(found);
+
+        List<String> words = randomWords(9, this::randomWord);
+        words.add("common0");
+        Set<String> candidates = index.findCandidateIds(item("lost-1", "lost", words));
+
+        // Only band collisions, each ~4% likely at J = 1/19
+        assertThat(candidates.size()).isLessThan(PAIRS / 10);
+    }
+
+    @Test
+    void unrelatedDescriptionsRarelyCollide() {
+        List<Item> found = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            found.add(item("found-" + i, "found", randomWords()));
+        }
+        ItemMatchIndex index = index(found);
+
+        long candidates = 0;
+        for (int i = 0; i < 100; i++) {
+            candidates += index
+                .findCandidateIds(item("lost-" + i, "lost", randomWords()))
+                .size();
+        }
+
+        // Well under one candidate per lookup out of a bucket of 500
+        assertThat(candidates / 100.0).isLessThan(1.0);
+    }
+
+    @Test
+    void onlyLooksInTheOppositeStatusOfTheSameCategory() {
+        List<String> words = randomWords();
+        Item lost = item("lost-1", "lost", words);
+        Item otherCategory = item("found-1", "found", words);
+        otherCategory.setCategory("documents");
+        ItemMatchIndex index = index(
+            List.of(lost, otherCategory, item("found-2", "found", words))
+        );
+
+        assertThat(index.findCandidateIds(lost)).containsExactly("found-2");
+    }
+
+    @Test
+    void syncPicksUpWritesMadeThroughOtherInstances() {
+        List<String> words = randomWords();
+        Item lost = item("lost-1", "lost", words);
+        ItemMatchIndex index = index(List.of(item("found-1", "found", words)));
+        LocalDateTime syncedThrough = index.syncedThrough();
+        assertThat(syncedThrough).isBefore(LocalDateTime.now());
+
+        // Another instance deleted found-1 and created found-2
+        when(itemRepository.findByUpdatedAtAfter(syncedThrough)).thenReturn(
+            List.of(item("found-2", "found", words))
+        );
+        when(
+            itemTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(
+                eq(syncedThrough),
+                any()
+            )
+        ).thenReturn(List.of(ItemTombstone.builder().itemId("found-1").build()));
+        index.syncChanges();
+
+        assertThat(index.findCandidateIds(lost)).containsExactly("found-2");
+        assertThat(index.syncedThrough()).isAfter(syncedThrough);
+    }
+
+    @Test
+    void keepsLocalWritesMadeDuringARebuild() {
+        List<String> words = randomWords();
+        Item lost = item("lost-1", "lost", words);
+        ItemMatchIndex index = index(List.of());
+
+        // The catalog read still sees found-1, which is deleted and replaced
+        // by found-2 while the read is in flight
+        when(itemRepository.findAll()).thenAnswer(call -> {
+            index.remove("found-1");
+            index.index(item("found-2", "found", words));
+            return List.of(item("found-1", "found", words));
+        });
+        index.rebuild();
+
+        assertThat(index.findCandidateIds(lost)).containsExactly("found-2");
+    }
+
+    // Fraction of lost items whose found counterpart, keeping `shared` of
+    // the `size` description words and replacing the rest with new ones,
+    // comes back as a candidate. Titles never share a word.
+    private double recall(int size, int shared, Supplier<String> words) {
+        List<Item> found = new ArrayList<>();
+        List<Item> lost = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            List<String> lostWords = randomWords(size, words);
+            lost.add(item("lost-" + i, "lost", lostWords));
+
+            Set<String> foundWords = new LinkedHashSet<>(
+                lostWords.subList(0, shared)
+            );
+            while (foundWords.size() < size) {
+                String word = words.get();
+                if (!lostWords.contains(word)) {
+                    foundWords.add(word);
+                }
+            }
+            found.add(item("found-" + i, "found", new ArrayList<>(foundWords)));
+        }
+        ItemMatchIndex index = index(found);
+
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (index.findCandidateIds(lost.get(i)).contains("found-" + i)) {
+                hits++;
+            }
+        }
+        return (double) hits / PAIRS;
+    }
+
+    private ItemMatchIndex index(List<Item> items) {
+        when(itemRepository.findAll()).thenReturn(items);
+        ItemMatchIndex index = new ItemMatchIndex(
+            itemRepository,
+            itemTombstoneRepository
+        );
+        index.rebuild();
+        return index;
+    }
+
+    private static Item item(String id, String status, List<String> words) {
+        return Item.builder()
+            .id(id)
+            .category("electronics")
+            .status(status)
+            .title("title" + id.replace("-", ""))
+            .description(String.join(" ", words))
+            .build();
+    }
+
+    private List<String> randomWords() {
+        return randomWords(DESCRIPTION_WORDS, this::randomWord);
+    }
+
+    private static List<String> randomWords(int count, Supplier<String> words) {
+        Set<String> distinct = new LinkedHashSet<>();
+        while (distinct.size() < count) {
+            distinct.add(words.get());
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    // Drawn from a vocabulary large enough that unrelated items share few words
+    private String randomWord() {
+        return "word" + random.nextInt(1_000_000);
+    }
+
+    // Drawn from 30 words, so each is used by far more than
+    // RARE_WORD_MAX_ITEMS of the bucket
+    private String commonWord() {
+        return "common" + random.nextInt(30);
+    }
+}
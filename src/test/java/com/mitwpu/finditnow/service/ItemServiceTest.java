@@ -0,0 +1,431 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mitwpu.finditnow.dto.ItemChanges;
+import com.mitwpu.finditnow.dto.ItemFilter;
+import com.mitwpu.finditnow.dto.ItemPage;
+import com.mitwpu.finditnow.dto.ItemSummary;
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.ItemTombstone;
+import com.mitwpu.finditnow.repository.ClaimRepository;
+import com.mitwpu.finditnow.repository.ItemRepository;
+import com.mitwpu.finditnow.repository.ItemTombstoneRepository;
+import com.mitwpu.finditnow.repository.MatchRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ItemServiceTest {
+
+    private final ItemFilter filter = ItemFilter.builder().build();
+
+    private ItemRepository itemRepository;
+    private ItemTombstoneRepository itemTombstoneRepository;
+    private ItemMatchIndex itemMatchIndex;
+    private ItemService itemService;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        itemTombstoneRepository = mock(ItemTombstoneRepository.class);
+        itemMatchIndex = mock(ItemMatchIndex.class);
+        itemService = new ItemService(
+            itemRepository,
+            mock(ClaimRepository.class),
+            itemMatchIndex,
+            mock(MatchRepository.class),
+            ForkJoinPool.commonPool(),
+            new MatchingStats(),
+            new CampusLocationDictionary(null, null),
+            new CorpusStatistics(null),
+            itemTombstoneRepository,
+            mock(ItemCache.class),
+            null
+        );
+        ReflectionTestUtils.setField(itemService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(itemService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(itemService, "maxChanges", 500);
+        ReflectionTestUtils.setField(itemService, "dateWindowDays", 30);
+        ReflectionTestUtils.setField(itemService, "parallelThreshold", 2000);
+    }
+
+    @Test
+    void nextCursorResumesAfterTheLastItemOfThePage() {
+        List<ItemSummary> summaries = summaries(3);
+        when(itemRepository.findPage(filter, null, null, 3)).thenReturn(summaries);
+
+        ItemPage page = itemService.getItems(filter, null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        ItemSummary last = summaries.get(1);
+        itemService.getItems(filter, page.getNextCursor(), 2);
+        verify(itemRepository).findPage(
+            filter,
+            last.getCreatedAt(),
+            last.getId(),
+            3
+        );
+    }
+
+    @Test
+    void lastPageHasNoNextCursor() {
+        when(itemRepository.findPage(filter, null, null, 3)).thenReturn(summaries(2));
+
+        ItemPage page = itemService.getItems(filter, null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOfAnItemWithoutCreatedAtKeepsOnlyTheId() {
+        List<ItemSummary> summaries = summaries(2);
+        summaries.get(0).setCreatedAt(null);
+        when(itemRepository.findPage(filter, null, null, 2)).thenReturn(summaries);
+
+        ItemPage page = itemService.getItems(filter, null, 1);
+        itemService.getItems(filter, page.getNextCursor(), 1);
+
+        verify(itemRepository).findPage(eq(filter), isNull(), eq("item-0"), eq(2));
+    }
+
+    @Test
+    void cursorIsOpaqueUrlSafeText() {
+        when(itemRepository.findPage(filter, null, null, 2)).thenReturn(summaries(2));
+
+        String cursor = itemService.getItems(filter, null, 1).getNextCursor();
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String cursor : List.of(
+            "%%%",
+            encode("no-separator"),
+            encode("2025-04-15T10:00|"),
+            encode("yesterday|item-1")
+        )) {
+            assertThatThrownBy(() -> itemService.getItems(filter, cursor, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Test
+    void rejectsPageSizesOutsideTheLimits() {
+        assertThatThrownBy(() -> itemService.getItems(filter, null, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> itemService.getItems(filter, null, 101))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(itemRepository, never()).findPage(
+            any(),
+            any(),
+            any(),
+            anyInt()
+        );
+    }
+
+    @Test
+    void missingChangeTokenResetsTheFeed() {
+        ItemChanges changes = itemService.getChanges(null);
+
+        assertThat(changes.isReset()).isTrue();
+        assertThat(changes.getToken()).isNotNull();
+        verify(itemRepository, never()).findSummariesByUpdatedAtAfterOrderByUpdatedAtAsc(
+            any(),
+            any()
+        );
+    }
+
+    @Test
+    void changesOverlapTheTokenTimeByFiveSeconds() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(10);
+        ItemSummary updated = ItemSummary.builder().id("item-1").build();
+        ItemTombstone tombstone = ItemTombstone.builder().itemId("item-2").build();
+        when(
+            itemRepository.findSummariesByUpdatedAtAfterOrderByUpdatedAtAsc(
+                any(),
+                any()
+            )
+        ).thenReturn(List.of(updated));
+        when(
+            itemTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(
+                any(),
+                any()
+            )
+        ).thenReturn(List.of(tombstone));
+
+        ItemChanges changes = itemService.getChanges(encode(since.toString()));
+
+        ArgumentCaptor<LocalDateTime> itemsFrom = ArgumentCaptor.forClass(
+            LocalDateTime.class
+        );
+        ArgumentCaptor<LocalDateTime> tombstonesFrom = ArgumentCaptor.forClass(
+            LocalDateTime.class
+        );
+        verify(itemRepository).findSummariesByUpdatedAtAfterOrderByUpdatedAtAsc(
+            itemsFrom.capture(),
+            any(Pageable.class)
+        );
+        verify(itemTombstoneRepository).findByDeletedAtAfterOrderByDeletedAtAsc(
+            tombstonesFrom.capture(),
+            any(Pageable.class)
+        );
+        assertThat(itemsFrom.getValue()).isEqualTo(since.minusSeconds(5));
+        assertThat(tombstonesFrom.getValue()).isEqualTo(since.minusSeconds(5));
+
+        assertThat(changes.isReset()).isFalse();
+        assertThat(changes.getItems()).containsExactly(updated);
+        assertThat(changes.getDeletedIds()).containsExactly("item-2");
+    }
+
+    @Test
+    void nextTokenIsIssuedAfterTheChangesWereRead() {
+        LocalDateTime before = LocalDateTime.now();
+
+        ItemChanges changes = itemService.getChanges(
+            encode(before.minusMinutes(1).toString())
+        );
+
+        assertThat(decode(changes.getToken())).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    void tokenOlderThanTheTombstoneRetentionResetsTheFeed() {
+        String token = encode(LocalDateTime.now().minusDays(31).toString());
+
+        ItemChanges changes = itemService.getChanges(token);
+
+        assertThat(changes.isReset()).isTrue();
+        verify(itemTombstoneRepository, never()).findByDeletedAtAfterOrderByDeletedAtAsc(
+            any(),
+            any()
+        );
+    }
+
+    @Test
+    void tooManyChangesResetTheFeed() {
+        ReflectionTestUtils.setField(itemService, "maxChanges", 2);
+        when(
+            itemRepository.findSummariesByUpdatedAtAfterOrderByUpdatedAtAsc(
+                any(),
+                any()
+            )
+        ).thenReturn(summaries(2));
+        when(
+            itemTombstoneRepository.findByDeletedAtAfterOrderByDeletedAtAsc(
+                any(),
+                any()
+            )
+        ).thenReturn(List.of(ItemTombstone.builder().itemId("item-9").build()));
+
+        ItemChanges changes = itemService.getChanges(
+            encode(LocalDateTime.now().minusMinutes(1).toString())
+        );
+
+        assertThat(changes.isReset()).isTrue();
+        assertThat(changes.getItems()).isEmpty();
+        assertThat(changes.getDeletedIds()).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedChangeTokens() {
+        assertThatThrownBy(() -> itemService.getChanges(encode("yesterday")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid change token");
+    }
+
+    @Test
+    void rejectsNullMatchingBatches() {
+        List<String> nullId = new ArrayList<>();
+        nullId.add(null);
+
+        assertThatThrownBy(() -> itemService.checkMatchingBatch(null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> itemService.checkMatchingBatch(nullId))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void scoresItemsWrittenSinceTheLastIndexSyncWithoutTheIndex() {
+        Random random = new Random(1);
+        Item target = randomItem(random, "lost-1", "lost");
+        Item indexed = randomItem(random, "found-1", "found");
+        Item unsynced = randomItem(random, "found-2", "found");
+        LocalDateTime syncedThrough = LocalDateTime.now().minusSeconds(30);
+        when(itemMatchIndex.syncedThrough()).thenReturn(syncedThrough);
+        when(itemMatchIndex.findCandidateIds(target)).thenReturn(Set.of("found-1"));
+        when(
+            itemRepository.findByCategoryAndStatusAndEpochDayBetweenAndIdIn(
+                any(),
+                eq("found"),
+                any(),
+                eq(Set.of("found-1"))
+            )
+        ).thenReturn(List.of(indexed));
+        // The target itself was just written too
+        when(
+            itemRepository.findByCategoryAndStatusAndEpochDayBetweenAndUpdatedAtAfter(
+                any(),
+                eq("found"),
+                any(),
+                eq(syncedThrough)
+            )
+        ).thenReturn(List.of(indexed, unsynced, target));
+
+        List<ItemService.ItemMatch> matches = itemService.scoreMatches(target);
+
+        List<String> expected = new ArrayList<>();
+        for (Item item : List.of(indexed, unsynced)) {
+            if (itemService.calculateMatchScore(target, item) > 0.4) {
+                expected.add(item.getId());
+            }
+        }
+        assertThat(matches)
+            .extracting(match -> match.getItem().getId())
+            .containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(expected).contains("found-2");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void prunedTopMatchesEqualTheTopOfTheFullScores(boolean substringContainment) {
+        ReflectionTestUtils.setField(
+            itemService,
+            "substringContainment",
+            substringContainment
+        );
+        Random random = new Random(42);
+        List<Item> catalog = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            catalog.add(randomItem(random, "found-" + i, "found"));
+        }
+        when(
+            itemRepository.findByCategoryAndStatusAndEpochDayBetweenAndIdNot(
+                any(),
+                any(),
+                any(),
+                any()
+            )
+        ).thenReturn(catalog);
+
+        for (int t = 0; t < 20; t++) {
+            Item target = randomItem(random, "lost-" + t, "lost");
+
+            // Every candidate scored in full, without a cutoff
+            List<Double> expected = catalog
+                .stream()
+                .map(item -> itemService.calculateMatchScore(target, item))
+                .filter(score -> score > 0.4)
+                .sorted(Comparator.reverseOrder())
+                .limit(5)
+                .toList();
+            assertThat(expected).hasSize(5);
+
+            // Serial, then split across the matching pool
+            for (int parallelThreshold : new int[] { 2000, 50 }) {
+                ReflectionTestUtils.setField(
+                    itemService,
+                    "parallelThreshold",
+                    parallelThreshold
+                );
+                List<ItemService.ItemMatch> matches = itemService.scoreMatches(
+                    target,
+                    5
+                );
+
+                assertThat(matches)
+                    .extracting(ItemService.ItemMatch::getScore)
+                    .containsExactlyElementsOf(expected);
+                for (ItemService.ItemMatch match : matches) {
+                    assertThat(match.getScore()).isEqualTo(
+                        itemService.calculateMatchScore(target, match.getItem())
+                    );
+                }
+            }
+        }
+    }
+
+    // An item drawn from a small vocabulary, so that many pairs share words
+    private Item randomItem(Random random, String id, String status) {
+        String[] words = {
+            "black", "blue", "leather", "wallet", "phone", "charger", "bottle",
+            "steel", "keys", "ring", "bag", "laptop", "sticker", "cover",
+            "cracked", "screen", "card", "library", "canteen", "small",
+        };
+        String[] locations = { "Library", "Canteen", "Main Gate", "Hostel" };
+        Item item = Item.builder()
+            .id(id)
+            .category("electronics")
+            .status(status)
+            .title(randomWords(random, words, 1 + random.nextInt(3)))
+            .description(randomWords(random, words, 3 + random.nextInt(6)))
+            .location(locations[random.nextInt(locations.length)])
+            .date(LocalDate.of(2025, 4, 1).plusDays(random.nextInt(10)).toString())
+            .build();
+        itemService.applyMatchFields(item);
+        return item;
+    }
+
+    private static String randomWords(Random random, String[] words, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    // Newest first, one minute apart
+    private static List<ItemSummary> summaries(int count) {
+        LocalDateTime newest = LocalDateTime.of(2025, 4, 15, 10, 0);
+        List<ItemSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            summaries.add(
+                ItemSummary.builder()
+                    .id("item-" + i)
+                    .createdAt(newest.minusMinutes(i))
+                    .build()
+            );
+        }
+        return summaries;
+    }
+
+    private static LocalDateTime decode(String token) {
+        return LocalDateTime.parse(
+            new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+        );
+    }
+
+    private static String encode(String text) {
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,174 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MailDeliveryQueueTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(
+        ServerSetupTest.SMTP
+    );
+
+    private final CountingMailSender mailSender = new CountingMailSender();
+    private MailDeliveryQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void sendsAFullBatchOverOneConnection() throws InterruptedException {
+        queue = start(10, 5_000, 100);
+
+        for (int i = 0; i < 10; i++) {
+            queue.submit(message(i));
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 10)).isTrue();
+        assertThat(mailSender.connections.get()).isEqualTo(1);
+        // The server can see the messages before the batch is counted
+        awaitBatches(1);
+        assertThat(queue.snapshot())
+            .containsEntry("batches", 1L)
+            .containsEntry("sent", 10L);
+    }
+
+    @Test
+    void splitsMessagesIntoBatchesOfTheConfiguredSize() {
+        queue = start(5, 5_000, 100);
+
+        for (int i = 0; i < 10; i++) {
+            queue.submit(message(i));
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 10)).isTrue();
+        assertThat(mailSender.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    void sendsAPartialBatchOnceTheLingerTimeIsUp() {
+        queue = start(50, 100, 100);
+
+        queue.submit(message(0));
+
+        assertThat(greenMail.waitForIncomingEmail(2_000, 1)).isTrue();
+        assertThat(mailSender.connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsMessagesWhenTheQueueStaysFull() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JavaMailSender stuckSender = mock(JavaMailSender.class);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        })
+            .when(stuckSender)
+            .send(any(SimpleMailMessage[].class));
+
+        queue = start(stuckSender, 1, 5_000, 1);
+        try {
+            // The sender thread holds the first message, the second fills the queue
+            queue.submit(message(0));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+            queue.submit(message(1));
+
+            assertThatThrownBy(() -> queue.submit(message(2))).isInstanceOf(
+                MailSendException.class
+            );
+            assertThat(queue.snapshot()).containsEntry("failed", 1L);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void sendNowDeliversImmediatelyAndReportsFailures() {
+        queue = start(50, 5_000, 100);
+
+        queue.sendNow(message(0));
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+
+        mailSender.setPort(1);
+        assertThatThrownBy(() -> queue.sendNow(message(1))).isInstanceOf(
+            MailSendException.class
+        );
+    }
+
+    private void awaitBatches(long batches) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (
+            !Long.valueOf(batches).equals(queue.snapshot().get("batches")) &&
+            System.currentTimeMillis() < deadline
+        ) {
+            Thread.sleep(10);
+        }
+    }
+
+    private MailDeliveryQueue start(int batchSize, long lingerMs, int capacity) {
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        return start(mailSender, batchSize, lingerMs, capacity);
+    }
+
+    private static MailDeliveryQueue start(
+        JavaMailSender sender,
+        int batchSize,
+        long lingerMs,
+        int capacity
+    ) {
+        MailDeliveryQueue queue = new MailDeliveryQueue(sender);
+        ReflectionTestUtils.setField(queue, "batchSize", batchSize);
+        ReflectionTestUtils.setField(queue, "lingerMs", lingerMs);
+        ReflectionTestUtils.setField(queue, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(queue, "submitTimeoutMs", 50L);
+        queue.start();
+        return queue;
+    }
+
+    private static SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("finditnow@mitwpu.edu.in");
+        message.setTo("user" + i + "@mitwpu.edu.in");
+        message.setSubject("Message " + i);
+        message.setText("Body " + i);
+        return message;
+    }
+
+    // Counts SMTP connections opened, one per send(...) call
+    private static class CountingMailSender extends JavaMailSenderImpl {
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        protected jakarta.mail.Transport connectTransport()
+            throws MessagingException {
+            connections.incrementAndGet();
+            return super.connectTransport();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mitwpu.finditnow.model.Item;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MatchRefreshQueueTest {
+
+    private static final MatchService.MatchUpdate NO_MATCHES =
+        new MatchService.MatchUpdate(List.of(), List.of());
+
+    private final MatchService matchService = mock(MatchService.class);
+    private final NotificationService notificationService = mock(
+        NotificationService.class
+    );
+
+    @Test
+    void refreshesQueuedItemsOnShutdown() throws InterruptedException {
+        MatchRefreshQueue queue = queue(10, 0);
+        Item item = item("item-1");
+        when(matchService.refreshMatches(item)).thenReturn(NO_MATCHES);
+
+        queue.submit(item);
+        queue.stop();
+
+        verify(notificationService).matchesFound(same(item), same(NO_MATCHES));
+        assertThat(queue.snapshot()).containsEntry("refreshesRun", 1L);
+    }
+
+    @Test
+    void refreshesAnItemWrittenTwiceOnceWithItsLatestFields()
+        throws InterruptedException {
+        MatchRefreshQueue queue = queue(10, 0);
+        Item first = item("item-1");
+        Item second = item("item-1");
+        second.setTitle("edited title");
+        when(matchService.refreshMatches(any())).thenReturn(NO_MATCHES);
+
+        queue.submit(first);
+        queue.submit(second);
+        queue.stop();
+
+        verify(matchService, never()).refreshMatches(first);
+        verify(matchService, times(1)).refreshMatches(second);
+    }
+
+    @Test
+    void leavesItemsToTheSweeperWhenFull() throws InterruptedException {
+        MatchRefreshQueue queue = queue(1, 0);
+        when(matchService.refreshMatches(any())).thenReturn(NO_MATCHES);
+
+        queue.submit(item("item-1"));
+        queue.submit(item("item-2"));
+        queue.stop();
+
+        verify(matchService, times(1)).refreshMatches(any());
+        assertThat(queue.snapshot())
+            .containsEntry("refreshesQueued", 1L)
+            .containsEntry("refreshesSkipped", 1L);
+    }
+
+    @Test
+    void keepsRefreshingAfterAFailure() throws InterruptedException {
+        MatchRefreshQueue queue = queue(10, 0);
+        Item broken = item("item-1");
+        Item item = item("item-2");
+        when(matchService.refreshMatches(broken)).thenThrow(
+            new IllegalStateException("mongo down")
+        );
+        when(matchService.refreshMatches(item)).thenReturn(NO_MATCHES);
+
+        queue.submit(broken);
+        queue.submit(item);
+        queue.stop();
+
+        verify(notificationService).matchesFound(same(item), same(NO_MATCHES));
+        assertThat(queue.snapshot())
+            .containsEntry("refreshesRun", 1L)
+            .containsEntry("refreshesFailed", 1L);
+    }
+
+    // No workers, so everything submitted is still queued when stop() runs
+    private MatchRefreshQueue queue(int capacity, int workers) {
+        MatchRefreshQueue queue = new MatchRefreshQueue(
+            matchService,
+            notificationService
+        );
+        ReflectionTestUtils.setField(queue, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(queue, "workerCount", workers);
+        ReflectionTestUtils.setField(queue, "shutdownTimeoutMs", 5_000L);
+        queue.start();
+        return queue;
+    }
+
+    private static Item item(String id) {
+        return Item.builder().id(id).title("title").build();
+    }
+}
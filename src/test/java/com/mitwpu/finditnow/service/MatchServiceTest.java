@@ -0,0 +1,86 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.mitwpu.finditnow.model.Item;
+import com.mitwpu.finditnow.model.Match;
+import com.mitwpu.finditnow.repository.MatchRepository;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+class MatchServiceTest {
+
+    private final ItemService itemService = mock(ItemService.class);
+    private final MatchRepository matchRepository = mock(MatchRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MatchService matchService = new MatchService(
+        itemService,
+        matchRepository,
+        mongoTemplate,
+        mock(ItemCache.class)
+    );
+
+    @Test
+    void readingMatchesOfAnUnscoredItemDoesNotScoreIt() {
+        Item item = Item.builder().id("lost-1").status("lost").build();
+        when(itemService.getItemById("lost-1")).thenReturn(item);
+
+        matchService.getMatchingItems("lost-1");
+
+        verify(matchRepository).findTop5ByItemIdOrderByScoreDesc("lost-1");
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void refreshReadsOnlyTheTopFiveEdgesOfEachItem() {
+        Item item = Item.builder().id("lost-1").status("lost").build();
+        when(itemService.scoreMatchesBothWays(item)).thenReturn(List.of());
+        when(
+            mongoTemplate.aggregate(
+                any(Aggregation.class),
+                eq(Match.class),
+                eq(Document.class)
+            )
+        ).thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        matchService.refreshMatches(item);
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(
+            Aggregation.class
+        );
+        verify(mongoTemplate, times(2)).aggregate(
+            aggregation.capture(),
+            eq(Match.class),
+            eq(Document.class)
+        );
+        List<Document> pipeline = aggregation.getValue().toPipeline(
+            Aggregation.DEFAULT_CONTEXT
+        );
+        Document topN = pipeline
+            .get(1)
+            .get("$group", Document.class)
+            .get("candidateIds", Document.class)
+            .get("$topN", Document.class);
+        assertThat(topN.get("n")).isEqualTo(5);
+        assertThat(topN.get("sortBy")).isEqualTo(new Document("score", -1));
+        assertThat(topN.get("output")).isEqualTo("$candidateId");
+        verify(mongoTemplate, never()).find(
+            any(Query.class),
+            eq(Match.class)
+        );
+    }
+}
@@ -0,0 +1,174 @@
+package com.mitwpu.finditnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mitwpu.finditnow.model.EmailOtp;
+import com.mitwpu.finditnow.repository.EmailOtpRepository;
+import com.mongodb.client.result.DeleteResult;
+import java.time.LocalDateTime;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class OtpServiceTest {
+
+    private static final String EMAIL = "student@mitwpu.edu.in";
+
+    private MongoTemplate mongoTemplate;
+    private OtpService otpService;
+
+    // The stored code, as the fake collection below sees it
+    private EmailOtp stored;
+
+    @BeforeEach
+    void setUp() {
+        EmailOtpRepository emailOtpRepository = mock(EmailOtpRepository.class);
+        when(emailOtpRepository.save(any(EmailOtp.class))).thenAnswer(call -> {
+            stored = call.getArgument(0);
+            return stored;
+        });
+
+        // Applies the service's own query and update to the stored code, so
+        // the attempt and expiry conditions it sends are what is tested
+        mongoTemplate = mock(MongoTemplate.class);
+        when(
+            mongoTemplate.findAndModify(
+                any(Query.class),
+                any(Update.class),
+                any(FindAndModifyOptions.class),
+                eq(EmailOtp.class)
+            )
+        ).thenAnswer(call -> {
+            Document query = call.<Query>getArgument(0).getQueryObject();
+            Document attempts = (Document) query.get("attempts");
+            Document createdAt = (Document) query.get("createdAt");
+            if (
+                stored == null ||
+                !stored.getEmail().equals(query.get("_id")) ||
+                stored.getAttempts() >= (Integer) attempts.get("$lt") ||
+                !stored.getCreatedAt().isAfter((LocalDateTime) createdAt.get("$gt"))
+            ) {
+                return null;
+            }
+            Document inc = (Document) call
+                .<Update>getArgument(1)
+                .getUpdateObject()
+                .get("$inc");
+            stored.setAttempts(stored.getAttempts() + (Integer) inc.get("attempts"));
+            return copy(stored);
+        });
+        when(mongoTemplate.remove(any(Query.class), eq(EmailOtp.class))).thenAnswer(
+            call -> {
+                Document query = call.<Query>getArgument(0).getQueryObject();
+                if (stored == null || !stored.getCode().equals(query.get("code"))) {
+                    return DeleteResult.acknowledged(0);
+                }
+                stored = null;
+                return DeleteResult.acknowledged(1);
+            }
+        );
+
+        otpService = new OtpService(emailOtpRepository, mongoTemplate);
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 3);
+    }
+
+    @Test
+    void rightCodeVerifiesOnce() {
+        String code = otpService.issue(EMAIL);
+
+        assertThat(otpService.verify(EMAIL, code)).isTrue();
+        assertThat(otpService.verify(EMAIL, code)).isFalse();
+    }
+
+    @Test
+    void wrongCodeCountsAnAttemptAndKeepsTheCode() {
+        String code = otpService.issue(EMAIL);
+
+        assertThat(otpService.verify(EMAIL, wrong(code))).isFalse();
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(EmailOtp.class));
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(otpService.verify(EMAIL, code)).isTrue();
+    }
+
+    @Test
+    void codeStopsVerifyingAfterMaxAttempts() {
+        String code = otpService.issue(EMAIL);
+        for (int i = 0; i < 3; i++) {
+            assertThat(otpService.verify(EMAIL, wrong(code))).isFalse();
+        }
+
+        assertThat(otpService.verify(EMAIL, code)).isFalse();
+        assertThat(stored.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void lastAllowedAttemptCanStillSucceed() {
+        String code = otpService.issue(EMAIL);
+        for (int i = 0; i < 2; i++) {
+            otpService.verify(EMAIL, wrong(code));
+        }
+
+        assertThat(otpService.verify(EMAIL, code)).isTrue();
+    }
+
+    @Test
+    void newCodeResetsTheAttempts() {
+        String first = otpService.issue(EMAIL);
+        for (int i = 0; i < 3; i++) {
+            otpService.verify(EMAIL, wrong(first));
+        }
+
+        String second = otpService.issue(EMAIL);
+
+        assertThat(otpService.verify(EMAIL, second)).isTrue();
+    }
+
+    @Test
+    void expiredCodeDoesNotVerify() {
+        String code = otpService.issue(EMAIL);
+        stored.setCreatedAt(
+            LocalDateTime.now().minus(OtpService.OTP_TTL).minusSeconds(1)
+        );
+
+        assertThat(otpService.verify(EMAIL, code)).isFalse();
+    }
+
+    @Test
+    void missingEmailOrCodeIsRejectedWithoutALookup() {
+        assertThat(otpService.verify(null, "123456")).isFalse();
+        assertThat(otpService.verify(EMAIL, null)).isFalse();
+
+        verify(mongoTemplate, never()).findAndModify(
+            any(Query.class),
+            any(Update.class),
+            any(FindAndModifyOptions.class),
+            eq(EmailOtp.class)
+        );
+    }
+
+    // A different 6-digit code
+    private static String wrong(String code) {
+        return code.equals("123456") ? "654321" : "123456";
+    }
+
+    private static EmailOtp copy(EmailOtp otp) {
+        return EmailOtp.builder()
+            .email(otp.getEmail())
+            .code(otp.getCode())
+            .attempts(otp.getAttempts())
+            .createdAt(otp.getCreatedAt())
+            .build();
+    }
+}
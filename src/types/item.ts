@@ -17,6 +17,47 @@ export interface Item {
 
 export type ItemStatus = "lost" | "found" | "recovered";
 
+// Filters for the paginated item feed; dates are yyyy-MM-dd
+export interface ItemQuery {
+  status?: string;
+  type?: string;
+  category?: string;
+  location?: string;
+  search?: string; // Matches title or description
+  from?: string;
+  to?: string;
+  cursor?: string;
+  limit?: number;
+}
+
+// What list endpoints return; open the item for the full document
+export type ItemSummary = Pick<
+  Item,
+  | "id"
+  | "userId"
+  | "title"
+  | "category"
+  | "type"
+  | "status"
+  | "location"
+  | "date"
+  | "imageUrl"
+  | "createdAt"
+  | "updatedAt"
+>;
+
+export interface ItemChanges {
+  items: ItemSummary[];
+  deletedIds: string[];
+  token: string;
+  reset: boolean; // reload the feed instead of applying the changes
+}
+
+export interface ItemPage {
+  items: ItemSummary[];
+  nextCursor: string | null;
+}
+
 export interface Claim {
   id: string;
   itemId: string;